@@ -0,0 +1,35 @@
+package app.eat.it.restaurantservice.benchmark;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.mapper.RestaurantMapper;
+import app.eat.it.restaurantservice.model.Restaurant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final RestaurantMapper mapper = RestaurantMapper.INSTANCE;
+    private final Restaurant restaurant = new Restaurant(1L, "Blue whale", "12 rue de Rivoli, Paris", 48.85, 2.35, 3L);
+    private final RestaurantDto restaurantDto = new RestaurantDto("Blue whale", "12 rue de Rivoli, Paris", 48.85, 2.35);
+
+    @Benchmark
+    public RestaurantResponseDto toDto() {
+        return mapper.toDto(restaurant);
+    }
+
+    @Benchmark
+    public Restaurant toModel() {
+        return mapper.toModel(restaurantDto);
+    }
+
+}
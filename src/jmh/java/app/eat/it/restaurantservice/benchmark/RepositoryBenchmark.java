@@ -0,0 +1,115 @@
+package app.eat.it.restaurantservice.benchmark;
+
+import app.eat.it.restaurantservice.RestaurantServiceApplication;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantField;
+import app.eat.it.restaurantservice.repository.RestaurantBulkLoader;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads against an embedded H2 database holding {@value #RESTAURANTS} restaurants. Compares
+ * the DTO projection used by the listing with loading entities and with selecting only {@code id,name},
+ * next to the lookups by id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    static final int RESTAURANTS = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final Set<RestaurantField> ID_AND_NAME = RestaurantField.parse("id,name");
+
+    private ConfigurableApplicationContext context;
+    private RestaurantRepository repository;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestaurantServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=validate",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn")
+                .run();
+        repository = context.getBean(RestaurantRepository.class);
+
+        RestaurantBulkLoader bulkLoader = context.getBean(RestaurantBulkLoader.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            List<Long> allocated = bulkLoader.allocateIds(RESTAURANTS);
+            List<Restaurant> restaurants = new ArrayList<>(RESTAURANTS);
+            for (int i = 0; i < RESTAURANTS; i++) {
+                restaurants.add(new Restaurant(allocated.get(i), "Restaurant " + i, i + " rue de Rivoli, Paris", 48.85, 2.35, 0L, Instant.now()));
+            }
+            bulkLoader.load(restaurants);
+        });
+        ids = repository.findAll().stream().map(Restaurant::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RestaurantResponseDto> pageOfProjections() {
+        return repository.findAllProjectedBy(randomPage());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> pageOfIdsAndNames() {
+        return repository.findAllFields(ID_AND_NAME, randomPage());
+    }
+
+    @Benchmark
+    public List<Restaurant> pageOfEntities() {
+        return repository.findAll(randomPage()).getContent();
+    }
+
+    @Benchmark
+    public Optional<Restaurant> findById() {
+        return repository.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public List<Restaurant> findAllById() {
+        int from = ThreadLocalRandom.current().nextInt(ids.size() - PAGE_SIZE);
+        return repository.findAllById(ids.subList(from, from + PAGE_SIZE));
+    }
+
+    private Pageable randomPage() {
+        int page = ThreadLocalRandom.current().nextInt(RESTAURANTS / PAGE_SIZE);
+        return PageRequest.of(page, PAGE_SIZE, Sort.by("name"));
+    }
+
+}
@@ -0,0 +1,54 @@
+package app.eat.it.restaurantservice.benchmark;
+
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link RestaurantService#getRestaurants} itself: parameter validation and the sort and
+ * pageable it builds. The repository answers with a fixed page, so no database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RestaurantServiceBenchmark {
+
+    private RestaurantService restaurantService;
+
+    @Setup
+    public void setUp() {
+        List<RestaurantResponseDto> page = List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris", 48.85, 2.35, 0L));
+        RestaurantRepository repository = (RestaurantRepository) Proxy.newProxyInstance(
+                RestaurantRepository.class.getClassLoader(),
+                new Class<?>[]{RestaurantRepository.class},
+                (proxy, method, args) -> page);
+        restaurantService = new RestaurantService(repository, null, event -> {});
+    }
+
+    @Benchmark
+    public List<RestaurantResponseDto> unsorted() {
+        return restaurantService.getRestaurants(3, 20, null, null);
+    }
+
+    @Benchmark
+    public List<RestaurantResponseDto> sortedByName() {
+        return restaurantService.getRestaurants(3, 20, "name", "asc");
+    }
+
+    @Benchmark
+    public List<RestaurantResponseDto> invalidSortParameter() {
+        return restaurantService.getRestaurants(3, 20, "rating", "desc");
+    }
+
+}
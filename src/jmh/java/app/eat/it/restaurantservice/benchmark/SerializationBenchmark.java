@@ -0,0 +1,90 @@
+package app.eat.it.restaurantservice.benchmark;
+
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.model.RestaurantField;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a listing page as the controller returns it, for typical and oversized page sizes,
+ * in every encoding the controller negotiates and with all fields or only {@code id,name}. The size of
+ * each payload, plain and gzipped, is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"", "id,name"})
+    private String fields;
+
+    private ObjectWriter writer;
+    private List<?> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        writer = new ObjectMapper(factory(format)).findAndRegisterModules().writerFor(List.class);
+        List<RestaurantResponseDto> restaurants = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> new RestaurantResponseDto(id, "Restaurant " + id, id + " rue de Rivoli, Paris", 48.85, 2.35, 0L))
+                .toList();
+        if (fields.isEmpty()) {
+            page = restaurants;
+        } else {
+            Set<RestaurantField> selected = RestaurantField.parse(fields);
+            page = restaurants.stream().map(restaurant -> RestaurantField.select(restaurant, selected)).toList();
+        }
+        System.out.printf("%n%s page of %d, fields [%s]: %d bytes, %d gzipped%n",
+                format, pageSize, fields, writeBytes().length, writeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] writeBytes() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    /**
+     * Serialization followed by the compression the server applies above its size threshold.
+     */
+    @Benchmark
+    public byte[] writeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+}
@@ -0,0 +1,206 @@
+package app.eat.it.restaurantservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test of the list and get-by-id endpoints of a running instance. Each scenario
+ * is driven by a fixed number of clients, each sending its next request as soon as the previous one
+ * has been answered, and reports throughput and latency percentiles of the measured period.
+ *
+ * <p>To compare the platform and virtual thread modes, run it once against each:
+ * <pre>
+ * VIRTUAL_THREADS_ENABLED=false ./gradlew bootRun
+ * ./gradlew loadTest -Ploadtest.label=platform
+ *
+ * VIRTUAL_THREADS_ENABLED=true ./gradlew bootRun
+ * ./gradlew loadTest -Ploadtest.label=virtual
+ * </pre>
+ *
+ * <p>The servlet and reactive stacks are compared the same way, seeding once and reusing the rows:
+ * <pre>
+ * ./gradlew bootRun
+ * ./gradlew loadTest -Ploadtest.label=servlet
+ *
+ * ./gradlew bootRun --args='--spring.profiles.active=reactive'
+ * ./gradlew loadTest -Ploadtest.label=reactive -Ploadtest.seed=0
+ * </pre>
+ *
+ * <p>Settings ({@code -Ploadtest.xxx=...}): {@code base-url}, {@code seed} (restaurants created before
+ * the run, 0 to reuse the existing ones), {@code concurrency}, {@code warmup} and {@code duration} in
+ * seconds, {@code label}. Clients draw ids and pages from fixed random seeds so runs are comparable.
+ */
+public class RestaurantLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final int SEED_PAGE_SIZE = 1000;
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private RestaurantLoadTest(String baseUrl, int concurrency, Duration warmup, Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public static void main(String[] args) throws Exception {
+        RestaurantLoadTest loadTest = new RestaurantLoadTest(
+                System.getProperty("loadtest.base-url", "http://localhost:8080"),
+                Integer.getInteger("loadtest.concurrency", 200),
+                Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10)),
+                Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30)));
+        String label = System.getProperty("loadtest.label", "unlabelled");
+
+        List<Long> ids = loadTest.prepareRestaurants(Integer.getInteger("loadtest.seed", 10_000));
+        int pages = Math.max(1, ids.size() / PAGE_SIZE);
+
+        System.out.printf("%-10s %-10s %10s %8s %10s %9s %9s %9s%n",
+                "mode", "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        loadTest.run(label, "list", random -> "/api/v1/restaurants?size=" + PAGE_SIZE + "&page=" + (random.nextInt(pages) + 1));
+        loadTest.run(label, "get-by-id", random -> "/api/v1/restaurants/" + ids.get(random.nextInt(ids.size())));
+    }
+
+    private List<Long> prepareRestaurants(int count) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(count);
+        for (int created = 0; created < count; created += SEED_BATCH_SIZE) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = created; i < Math.min(count, created + SEED_BATCH_SIZE); i++) {
+                if (i > created) {
+                    body.append(',');
+                }
+                body.append("{\"name\":\"Restaurant ").append(i).append("\",\"address\":\"Street ").append(i).append("\"}");
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/restaurants/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build();
+            ids.addAll(parseIds(send(request)));
+        }
+        if (ids.isEmpty()) {
+            // pages through the listing rather than the export, which the reactive mode does not serve
+            for (int page = 1; ; page++) {
+                Set<Long> pageIds = parseIds(send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/v1/restaurants?size=" + SEED_PAGE_SIZE + "&page=" + page)).build()));
+                ids.addAll(pageIds);
+                if (pageIds.size() < SEED_PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No restaurants to load test against");
+        }
+        return ids;
+    }
+
+    private void run(String label, String scenario, Function<Random, String> nextPath) throws Exception {
+        drive(warmup, nextPath);
+        Result result = drive(duration, nextPath);
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%-10s %-10s %10d %8d %10.0f %9.2f %9.2f %9.2f%n",
+                label, scenario, latencies.length, result.errors(),
+                latencies.length / (double) duration.toSeconds(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private Result drive(Duration period, Function<Random, String> nextPath) throws Exception {
+        long deadline = System.nanoTime() + period.toNanos();
+        List<Future<Result>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(i);
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath.apply(random)))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400) {
+                                errors++;
+                            }
+                        } catch (IOException exception) {
+                            errors++;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), errors);
+                }));
+            }
+        }
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Result> future : clients) {
+            Result result = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + result.latencies().length);
+            System.arraycopy(result.latencies(), 0, latencies, offset, result.latencies().length);
+            errors += result.errors();
+        }
+        return new Result(latencies, errors);
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static Set<Long> parseIds(String body) {
+        // batch results repeat the id inside the embedded restaurant
+        Set<Long> ids = new LinkedHashSet<>();
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {}
+
+}
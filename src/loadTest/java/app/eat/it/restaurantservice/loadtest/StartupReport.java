@@ -0,0 +1,165 @@
+package app.eat.it.restaurantservice.loadtest;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application repeatedly in the default and in the fast startup mode and reports, per mode,
+ * the startup time Spring logs, the time from launching the JVM until the first request is answered,
+ * and the latency of that first request and of the one after it. Needs the database, like the
+ * application itself:
+ * <pre>
+ * ./gradlew startupReport
+ * </pre>
+ *
+ * <p>Both modes run from the same classpath, so only the AOT initialization, the CDS archive and the
+ * {@code fast} profile differ. Settings ({@code -Pstartup.xxx=...}): {@code runs} per mode and
+ * {@code port}; {@code classpath} and {@code archive} are filled in by the Gradle task.
+ */
+public class StartupReport {
+
+    private static final String MAIN_CLASS = "app.eat.it.restaurantservice.RestaurantServiceApplication";
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([\\d.]+) seconds");
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final String classpath;
+    private final int port;
+
+    private StartupReport(String classpath, int port) {
+        this.classpath = classpath;
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        String archive = System.getProperty("startup.archive");
+        if (classpath == null || archive == null || !new File(archive).isFile()) {
+            throw new IllegalStateException("Run through ./gradlew startupReport, which builds the classpath and the archive");
+        }
+        StartupReport report = new StartupReport(classpath, Integer.getInteger("startup.port", 18080));
+        int runs = Integer.getInteger("startup.runs", 5);
+
+        System.out.printf("%-10s %12s %10s %16s %17s%n",
+                "mode", "started ms", "ready ms", "first request ms", "second request ms");
+        report.run("default", runs, List.of(), List.of());
+        report.run("fast", runs,
+                List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=fast"));
+    }
+
+    private void run(String mode, int runs, List<String> jvmArgs, List<String> args) throws Exception {
+        long[][] results = new long[4][runs];
+        for (int i = 0; i < runs; i++) {
+            long[] result = start(jvmArgs, args);
+            for (int metric = 0; metric < result.length; metric++) {
+                results[metric][i] = result[metric];
+            }
+        }
+        System.out.printf("%-10s %12.0f %10.0f %16.1f %17.1f%n", mode,
+                median(results[0]), median(results[1]), median(results[2]), median(results[3]));
+    }
+
+    /**
+     * Returns the logged startup time, the time until the first answer, and the latencies of the first
+     * and the second request, all in nanoseconds.
+     */
+    private long[] start(List<String> jvmArgs, List<String> args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS, "--server.port=" + port));
+        command.addAll(args);
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            CompletableFuture<Long> started = watchOutput(process);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/restaurants?size=20"))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            long firstRequest = awaitFirstAnswer(process, request, launched);
+            long ready = System.nanoTime() - launched;
+            long secondRequest = time(request);
+            return new long[]{started.get(10, TimeUnit.SECONDS), ready, firstRequest, secondRequest};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private long awaitFirstAnswer(Process process, HttpRequest request, long launched) throws Exception {
+        while (System.nanoTime() - launched < READY_TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue() + " before answering");
+            }
+            try {
+                return time(request);
+            } catch (ConnectException exception) {
+                // not listening yet
+                Thread.sleep(5);
+            }
+        }
+        throw new IllegalStateException("No answer within " + READY_TIMEOUT);
+    }
+
+    private long time(HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        long latency = System.nanoTime() - start;
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return latency;
+    }
+
+    private static CompletableFuture<Long> watchOutput(Process process) {
+        // the output has to be drained anyway, or the application blocks once the pipe is full
+        CompletableFuture<Long> started = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (!started.isDone() && matcher.find()) {
+                        started.complete((long) (Double.parseDouble(matcher.group(1)) * 1_000_000_000L));
+                    }
+                }
+            } catch (IOException exception) {
+                // the process is gone
+            }
+            started.completeExceptionally(new IllegalStateException("The application never logged its startup time"));
+        });
+        return started;
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+
+}
@@ -20,15 +20,12 @@ public class RestaurantMapperImpl implements RestaurantMapper {
             return null;
         }
 
-        String name = null;
-        String address = null;
-
-        name = restaurantDto.name();
-        address = restaurantDto.address();
-
-        Long id = null;
+        Restaurant restaurant = new Restaurant();
 
-        Restaurant restaurant = new Restaurant( id, name, address );
+        restaurant.setName( restaurantDto.name() );
+        restaurant.setAddress( restaurantDto.address() );
+        restaurant.setLatitude( restaurantDto.latitude() );
+        restaurant.setLongitude( restaurantDto.longitude() );
 
         return restaurant;
     }
@@ -42,12 +39,18 @@ public class RestaurantMapperImpl implements RestaurantMapper {
         Long id = null;
         String name = null;
         String address = null;
+        Double latitude = null;
+        Double longitude = null;
+        Long version = null;
 
         id = restaurant.getId();
         name = restaurant.getName();
         address = restaurant.getAddress();
+        latitude = restaurant.getLatitude();
+        longitude = restaurant.getLongitude();
+        version = restaurant.getVersion();
 
-        RestaurantResponseDto restaurantResponseDto = new RestaurantResponseDto( id, name, address );
+        RestaurantResponseDto restaurantResponseDto = new RestaurantResponseDto( id, name, address, latitude, longitude, version );
 
         return restaurantResponseDto;
     }
@@ -0,0 +1,61 @@
+package app.eat.it.restaurantservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RESTAURANTS_CACHE = "restaurants";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${restaurant.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${restaurant.cache.ttl:10m}") Duration ttl,
+                                     @Value("${restaurant.cache.negative-ttl:5s}") Duration negativeTtl) {
+        Cache<Object, Object> restaurants = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new NegativeAwareExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(RESTAURANTS_CACHE, restaurants);
+        // evictions issued by transactional writes are applied only once the new state is committed
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Keeps cached misses (stored by Spring as {@link NullValue}) for a much shorter time than hits,
+     * so a restaurant created on another instance becomes visible quickly.
+     */
+    private record NegativeAwareExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return value instanceof NullValue ? negativeTtl.toNanos() : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
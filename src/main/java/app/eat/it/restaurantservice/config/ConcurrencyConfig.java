@@ -0,0 +1,32 @@
+package app.eat.it.restaurantservice.config;
+
+import app.eat.it.restaurantservice.filter.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Active when requests run on virtual threads ({@code spring.threads.virtual.enabled=true}). The
+ * number of requests in flight is derived from the size of the connection pool they compete for.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConcurrencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${restaurant.concurrency.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${restaurant.concurrency.acquire-timeout:1s}") Duration acquireTimeout) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(poolSize * requestsPerConnection, acquireTimeout);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+}
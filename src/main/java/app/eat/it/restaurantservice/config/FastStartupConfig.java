@@ -0,0 +1,40 @@
+package app.eat.it.restaurantservice.config;
+
+import app.eat.it.restaurantservice.controller.RestaurantController;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Active with the {@code fast} profile, which starts beans lazily so that a new instance serves
+ * traffic sooner. Run it from {@code ./gradlew bootRunFast}, or in a container with
+ * <pre>
+ * java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+ *      -cp restaurant-service-0.0.1-SNAPSHOT-fast.jar:lib/* app.eat.it.restaurantservice.RestaurantServiceApplication \
+ *      --spring.profiles.active=fast
+ * </pre>
+ * where the jar, the libraries and the archive come from the {@code fastStartupJar} and {@code cdsArchive}
+ * tasks, and the classpath is the same as in the training run. The AOT initialization is generated for
+ * the default property values, so switching the count strategy, the limiter or the replicas, or adding
+ * the {@code reactive} profile, needs the application to run without {@code spring.aot.enabled}.
+ */
+@Configuration
+@Profile("fast")
+public class FastStartupConfig {
+
+    /**
+     * Keeps what the first listing or lookup needs eager: the connection pool, the migrations and the
+     * Hibernate metamodel behind the entity manager factory, and the controller with its services.
+     * Search, export, import and the change feed are injected into the controller lazily.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPathFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                RestaurantController.class);
+    }
+
+}
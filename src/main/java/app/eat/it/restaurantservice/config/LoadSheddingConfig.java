@@ -0,0 +1,43 @@
+package app.eat.it.restaurantservice.config;
+
+import app.eat.it.restaurantservice.filter.AdaptiveConcurrencyLimit;
+import app.eat.it.restaurantservice.filter.AdaptiveConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "restaurant.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> adaptiveConcurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${restaurant.limiter.read.initial-limit:20}") int readInitialLimit,
+            @Value("${restaurant.limiter.read.max-limit:200}") int readMaxLimit,
+            @Value("${restaurant.limiter.write.initial-limit:10}") int writeInitialLimit,
+            @Value("${restaurant.limiter.write.max-limit:50}") int writeMaxLimit,
+            @Value("${restaurant.limiter.min-limit:2}") int minLimit,
+            @Value("${restaurant.limiter.max-queue-size:50}") int maxQueueSize,
+            @Value("${restaurant.limiter.max-queue-wait:50ms}") Duration maxQueueWait,
+            @Value("${restaurant.limiter.excluded-paths:/api/v1/restaurants/changes,/api/v1/restaurants/export,/api/v1/restaurants/import}") List<String> excludedPaths) {
+        AdaptiveConcurrencyLimitFilter filter = new AdaptiveConcurrencyLimitFilter(
+                new AdaptiveConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit, maxQueueSize, maxQueueWait),
+                new AdaptiveConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit, maxQueueSize, maxQueueWait),
+                excludedPaths,
+                meterRegistry);
+        FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // after the observation filter, so shed requests still show up in the request metrics
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+}
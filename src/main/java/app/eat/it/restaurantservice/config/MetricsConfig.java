@@ -0,0 +1,53 @@
+package app.eat.it.restaurantservice.config;
+
+import app.eat.it.restaurantservice.filter.StatementCountFilter;
+import app.eat.it.restaurantservice.metrics.CountingDataSource;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Wraps the application data source only; the pools behind a routing data source are reached
+     * through it and would otherwise count every statement twice.
+     */
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource(ObjectProvider<SqlStatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new CountingDataSource(dataSource, statementCounter.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(
+            SqlStatementCounter statementCounter,
+            MeterRegistry meterRegistry,
+            @Value("${restaurant.metrics.statement-warn-threshold:10}") int warnThreshold) {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter(statementCounter, meterRegistry, warnThreshold));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+}
@@ -0,0 +1,32 @@
+package app.eat.it.restaurantservice.controller;
+
+import app.eat.it.restaurantservice.exception.VersionConflictException;
+import app.eat.it.restaurantservice.model.Restaurant;
+
+/**
+ * Entity tags of single restaurants, which are their quoted versions, as sent by both controllers and
+ * read back from {@code If-Match}.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static Long parseVersion(Long id, String eTag) {
+        String version = eTag.trim();
+        if (version.startsWith("W/")) {
+            version = version.substring(2);
+        }
+        version = version.replace("\"", "");
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException exception) {
+            // an entity tag that is not a version can never match the current one
+            throw new VersionConflictException(Restaurant.class, id);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package app.eat.it.restaurantservice.controller;
+
+import app.eat.it.restaurantservice.dto.BatchItemResultDto;
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.service.ReactiveRestaurantService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The restaurant resource as served in the reactive mode: listing, lookups and writes with the same
+ * parameters, validation and statuses as {@link RestaurantController}. Search, export, import, the
+ * change feed and the batch updates and deletions are only served by the servlet mode.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/restaurants")
+@Validated
+public class ReactiveRestaurantController {
+
+    private final ReactiveRestaurantService restaurantService;
+
+    public ReactiveRestaurantController(ReactiveRestaurantService restaurantService) {
+        this.restaurantService = restaurantService;
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleException(ConstraintViolationException exception) {}
+
+    @GetMapping
+    public Flux<RestaurantResponseDto> getRestaurants(@RequestParam(name = "page", defaultValue = "1") @Positive Integer pageNumber,
+                                                      @RequestParam(name = "size", defaultValue = "10") @Positive Integer pageSize,
+                                                      @RequestParam(name = "sort", required = false) String sortParameter,
+                                                      @RequestParam(name = "sort_type", required = false) String sortType) {
+        return restaurantService.getRestaurants(pageNumber, pageSize, sortParameter, sortType);
+    }
+
+    @GetMapping(params = "ids")
+    public Flux<RestaurantResponseDto> getRestaurantsByIds(@RequestParam(name = "ids") @NotEmpty @Size(max = 100) List<Long> ids) {
+        return restaurantService.getRestaurantsByIds(ids);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<RestaurantResponseDto> getRestaurantById(@PathVariable(name = "id") Long id) {
+        return restaurantService.getRestaurant(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public Mono<RestaurantResponseDto> createRestaurant(@RequestBody @Valid RestaurantDto restaurantDto) {
+        return restaurantService.createRestaurant(restaurantDto);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Void> updateRestaurantById(@PathVariable(name = "id") Long id,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestBody @Valid RestaurantDto restaurantDto) {
+        if (ifMatch == null) {
+            return restaurantService.updateRestaurant(id, restaurantDto);
+        }
+        return restaurantService.updateRestaurant(id, restaurantDto, ETags.parseVersion(id, ifMatch));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteRestaurantById(@PathVariable(name = "id") Long id) {
+        return restaurantService.deleteRestaurant(id);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public Flux<BatchItemResultDto> createRestaurants(@RequestBody @NotEmpty List<@Valid RestaurantDto> restaurantDtos) {
+        return restaurantService
+                .createRestaurants(restaurantDtos)
+                .map(restaurant -> new BatchItemResultDto(restaurant.id(), HttpStatus.CREATED.value(), restaurant));
+    }
+
+}
@@ -1,65 +1,272 @@
 package app.eat.it.restaurantservice.controller;
 
+import app.eat.it.restaurantservice.count.RestaurantCounter;
+import app.eat.it.restaurantservice.dto.BatchItemResultDto;
+import app.eat.it.restaurantservice.dto.ImportReportDto;
+import app.eat.it.restaurantservice.dto.NearbyRestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
 import app.eat.it.restaurantservice.dto.RestaurantDto;
 import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.dto.RestaurantSliceDto;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.format.DataFormat;
+import app.eat.it.restaurantservice.format.RestaurantExporter;
 import app.eat.it.restaurantservice.mapper.RestaurantMapper;
 import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantField;
+import app.eat.it.restaurantservice.search.SearchMode;
+import app.eat.it.restaurantservice.service.IdempotencyKeyStore;
+import app.eat.it.restaurantservice.service.RestaurantImportService;
+import app.eat.it.restaurantservice.service.RestaurantSearchService;
 import app.eat.it.restaurantservice.service.RestaurantService;
+import app.eat.it.restaurantservice.service.RestaurantSlice;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.micrometer.common.util.StringUtils.isNotBlank;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/restaurants")
 @Validated
 public class RestaurantController {
 
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final RestaurantService restaurantService;
     private final RestaurantMapper mapper;
+    private final RestaurantExporter exporter;
+    private final RestaurantImportService importService;
+    private final RestaurantSearchService searchService;
+    private final RestaurantChangeFeed changeFeed;
+    private final RestaurantCounter counter;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final Duration sseTimeout;
+    private final Duration longPollTimeout;
 
-    public RestaurantController(RestaurantService restaurantService, RestaurantMapper mapper) {
+    public RestaurantController(RestaurantService restaurantService,
+                                RestaurantMapper mapper,
+                                @Lazy RestaurantExporter exporter,
+                                @Lazy RestaurantImportService importService,
+                                @Lazy RestaurantSearchService searchService,
+                                @Lazy RestaurantChangeFeed changeFeed,
+                                RestaurantCounter counter,
+                                IdempotencyKeyStore idempotencyKeyStore,
+                                @Value("${restaurant.feed.sse-timeout:30m}") Duration sseTimeout,
+                                @Value("${restaurant.feed.long-poll-timeout:30s}") Duration longPollTimeout) {
         this.restaurantService = restaurantService;
         this.mapper = mapper;
+        this.exporter = exporter;
+        this.importService = importService;
+        this.searchService = searchService;
+        this.changeFeed = changeFeed;
+        this.counter = counter;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.sseTimeout = sseTimeout;
+        this.longPollTimeout = longPollTimeout;
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public void handleException(ConstraintViolationException exception) {}
 
+    /**
+     * With {@code fields}, only the listed attributes are read and returned, e.g. {@code fields=id,name}.
+     * The total number of restaurants, when a count strategy keeps one, comes in {@value #TOTAL_COUNT_HEADER}.
+     * The page is tagged weakly: its JSON, CBOR and Smile renderings are equivalent but not byte-identical.
+     */
     @GetMapping
-    public List<RestaurantResponseDto> getRestaurants(@RequestParam(name = "page", defaultValue = "1") @Positive Integer pageNumber,
-                                                      @RequestParam(name = "size", defaultValue = "10") @Positive Integer pageSize,
-                                                      @RequestParam(name = "sort", required = false) String sortParameter,
-                                                      @RequestParam(name = "sort_type", required = false) String sortType) {
-        return restaurantService
-                .getRestaurants(pageNumber, pageSize, sortParameter, sortType)
+    public ResponseEntity<List<?>> getRestaurants(@RequestParam(name = "page", defaultValue = "1") @Positive Integer pageNumber,
+                                                  @RequestParam(name = "size", defaultValue = "10") @Positive Integer pageSize,
+                                                  @RequestParam(name = "sort", required = false) String sortParameter,
+                                                  @RequestParam(name = "sort_type", required = false) String sortType,
+                                                  @RequestParam(name = "fields", required = false) String fields,
+                                                  WebRequest request) {
+        Set<RestaurantField> selectedFields = isNotBlank(fields) ? RestaurantField.parse(fields) : null;
+        List<?> restaurants = selectedFields == null
+                ? restaurantService.getRestaurants(pageNumber, pageSize, sortParameter, sortType)
+                : restaurantService.getRestaurantFields(pageNumber, pageSize, sortParameter, sortType, selectedFields);
+        String eTag = collectionETag(restaurants, selectedFields);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+        OptionalLong total = counter.count();
+        if (total.isPresent()) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(total.getAsLong()));
+        }
+        return response.body(restaurants);
+    }
+
+    @GetMapping(params = "cursor")
+    public RestaurantSliceDto getRestaurantSlice(@RequestParam(name = "cursor", required = false) String cursor,
+                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer pageSize,
+                                                 @RequestParam(name = "sort", required = false) String sortParameter,
+                                                 @RequestParam(name = "sort_type", required = false) String sortType) {
+        RestaurantSlice slice = restaurantService.getRestaurantSlice(cursor, pageSize, sortParameter, sortType);
+        List<RestaurantResponseDto> content = slice.content()
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+        return new RestaurantSliceDto(content, slice.nextCursor(), slice.hasNext());
+    }
+
+    // with a cursor as well, the request is paged by the cursor instead
+    @GetMapping(params = {"ids", "!cursor"})
+    public List<RestaurantResponseDto> getRestaurantsByIds(@RequestParam(name = "ids") @NotEmpty @Size(max = 100) List<Long> ids) {
+        return restaurantService.getRestaurantsByIds(ids)
                 .stream()
                 .map(mapper::toDto)
                 .toList();
     }
 
+    @GetMapping("/search")
+    public List<RestaurantResponseDto> searchRestaurants(@RequestParam(name = "q") @NotBlank String query,
+                                                         @RequestParam(name = "mode", defaultValue = "substring") String mode,
+                                                         @RequestParam(name = "page", defaultValue = "1") @Positive @Max(1000) Integer pageNumber,
+                                                         @RequestParam(name = "size", defaultValue = "10") @Positive @Max(100) Integer pageSize) {
+        return searchService.search(query, SearchMode.of(mode), pageNumber, pageSize);
+    }
+
+    @GetMapping("/nearby")
+    public List<NearbyRestaurantDto> getNearbyRestaurants(@RequestParam(name = "lat") @DecimalMin("-90") @DecimalMax("90") Double latitude,
+                                                          @RequestParam(name = "lon") @DecimalMin("-180") @DecimalMax("180") Double longitude,
+                                                          @RequestParam(name = "radius_km", required = false) @Positive Double radiusKm,
+                                                          @RequestParam(name = "limit", defaultValue = "10") @Positive @Max(100) Integer limit) {
+        return searchService.findNearby(latitude, longitude, radiusKm, limit);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRestaurants(@RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        DataFormat dataFormat = DataFormat.of(format);
+        return ResponseEntity.ok()
+                .contentType(dataFormat.getMediaType())
+                .body(exporter.export(dataFormat));
+    }
+
+    /**
+     * Streams restaurant changes as server-sent events, one event per batch of changes. The id of an
+     * event is the sequence of its last change, so a reconnecting client resumes where it left off.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(name = "since", required = false) @PositiveOrZero Long since,
+                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        long position = lastEventId != null ? lastEventId : since != null ? since : changeFeed.head();
+        RestaurantChangeFeed.Subscription subscription = changeFeed.subscribe(position, changes -> emitter.send(SseEmitter.event()
+                .id(String.valueOf(changes.get(changes.size() - 1).sequence()))
+                .name("changes")
+                .data(changes, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(exception -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Long-polling counterpart of {@link #streamChanges}: answers with the next batch of changes after
+     * {@code since} as soon as there is one, or with an empty list once the poll times out.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<List<RestaurantChangeDto>> pollChanges(@RequestParam(name = "since", required = false) @PositiveOrZero Long since) {
+        DeferredResult<List<RestaurantChangeDto>> result = new DeferredResult<>(longPollTimeout.toMillis(), List.of());
+        RestaurantChangeFeed.Subscription subscription = changeFeed.subscribe(since != null ? since : changeFeed.head(), result::setResult);
+        result.onCompletion(subscription::cancel);
+        return result;
+    }
+
+    /**
+     * The restaurant itself comes from the cache whole, so {@code fields} only narrows what is returned.
+     * The validators are taken from that same restaurant, so a client never revalidates against a
+     * different state than the one it was sent.
+     */
     @GetMapping("/{id}")
-    public RestaurantResponseDto getRestaurantById(@PathVariable(name = "id") Long id) {
-        Restaurant restaurant = restaurantService.getRestaurant(id);
-        return mapper.toDto(restaurant);
+    public ResponseEntity<?> getRestaurantById(@PathVariable(name = "id") Long id,
+                                               @RequestParam(name = "fields", required = false) String fields,
+                                               WebRequest request) {
+        Set<RestaurantField> selectedFields = isNotBlank(fields) ? RestaurantField.parse(fields) : null;
+        RestaurantDetailsDto restaurant = restaurantService.getRestaurant(id);
+        if (request.checkNotModified(ETags.of(restaurant.version()), toEpochMilli(restaurant.lastModified()))) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.of(restaurant.version()));
+        if (restaurant.lastModified() != null) {
+            response.lastModified(restaurant.lastModified());
+        }
+        RestaurantResponseDto restaurantDto = mapper.toDto(restaurant);
+        return response.body(selectedFields == null ? restaurantDto : RestaurantField.select(restaurantDto, selectedFields));
     }
 
     @PostMapping
     @ResponseStatus(code = HttpStatus.CREATED)
-    public RestaurantResponseDto createRestaurant(@RequestBody @Valid RestaurantDto restaurantDto) {
-        Restaurant restaurant = mapper.toModel(restaurantDto);
-        return mapper.toDto(restaurantService.createRestaurant(restaurant));
+    public RestaurantResponseDto createRestaurant(@RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                  @RequestBody @Valid RestaurantDto restaurantDto) {
+        if (idempotencyKey == null) {
+            return mapper.toDto(restaurantService.createRestaurant(mapper.toModel(restaurantDto)));
+        }
+        return idempotencyKeyStore.execute(idempotencyKey, "POST", restaurantDto,
+                () -> mapper.toDto(restaurantService.createRestaurant(mapper.toModel(restaurantDto))));
+    }
+
+    @PostMapping("/import")
+    public ImportReportDto importRestaurants(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                                             InputStream body) throws IOException {
+        return importService.importRestaurants(DataFormat.of(format), body);
     }
 
     @PutMapping("/{id}")
     public void updateRestaurantById(@PathVariable(name = "id") Long id,
+                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                     @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                      @RequestBody @Valid RestaurantDto restaurantDto) {
-        restaurantService.updateRestaurant(id, restaurantDto);
+        Long expectedVersion = ifMatch != null ? ETags.parseVersion(id, ifMatch) : null;
+        if (idempotencyKey == null) {
+            updateRestaurant(id, restaurantDto, expectedVersion);
+        } else {
+            // a replay must not fail with 412 because the first attempt already moved the version on
+            idempotencyKeyStore.execute(idempotencyKey, "PUT " + id, Arrays.asList(restaurantDto, expectedVersion), () -> {
+                updateRestaurant(id, restaurantDto, expectedVersion);
+                return true;
+            });
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -67,4 +274,73 @@ public class RestaurantController {
         restaurantService.deleteRestaurant(id);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(code = HttpStatus.CREATED)
+    public List<BatchItemResultDto> createRestaurants(@RequestBody @NotEmpty List<@Valid RestaurantDto> restaurantDtos) {
+        List<Restaurant> restaurants = restaurantDtos
+                .stream()
+                .map(mapper::toModel)
+                .toList();
+        return restaurantService
+                .createRestaurants(restaurants)
+                .stream()
+                .map(restaurant -> new BatchItemResultDto(restaurant.getId(), HttpStatus.CREATED.value(), mapper.toDto(restaurant)))
+                .toList();
+    }
+
+    @PutMapping("/batch")
+    public List<BatchItemResultDto> updateRestaurants(@RequestBody @NotEmpty Map<Long, @Valid RestaurantDto> restaurantDtos) {
+        Map<Long, Restaurant> updated = restaurantService
+                .updateRestaurants(restaurantDtos)
+                .stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return restaurantDtos.keySet()
+                .stream()
+                .map(id -> updated.containsKey(id)
+                        ? new BatchItemResultDto(id, HttpStatus.OK.value(), mapper.toDto(updated.get(id)))
+                        : new BatchItemResultDto(id, HttpStatus.NOT_FOUND.value(), null))
+                .toList();
+    }
+
+    @DeleteMapping("/batch")
+    public List<BatchItemResultDto> deleteRestaurants(@RequestBody @NotEmpty List<Long> ids) {
+        Set<Long> deleted = new HashSet<>(restaurantService.deleteRestaurants(ids));
+        return ids
+                .stream()
+                .map(id -> new BatchItemResultDto(id, deleted.contains(id) ? HttpStatus.OK.value() : HttpStatus.NOT_FOUND.value(), null))
+                .toList();
+    }
+
+    private void updateRestaurant(Long id, RestaurantDto restaurantDto, Long expectedVersion) {
+        if (expectedVersion == null) {
+            restaurantService.updateRestaurant(id, restaurantDto);
+        } else {
+            restaurantService.updateRestaurant(id, restaurantDto, expectedVersion);
+        }
+    }
+
+    /**
+     * Digest of the page as loaded: the selected fields, then the ids and versions of whole restaurants
+     * or the values of the selected fields. Any restaurant of the page being updated, or joining or
+     * leaving it, yields a different tag.
+     */
+    private static String collectionETag(List<?> restaurants, Set<RestaurantField> selectedFields) {
+        StringBuilder content = new StringBuilder(restaurants.size() * 16);
+        content.append(selectedFields == null ? "*" : selectedFields).append(';');
+        for (Object restaurant : restaurants) {
+            if (restaurant instanceof RestaurantResponseDto restaurantDto) {
+                content.append(restaurantDto.id()).append(':').append(restaurantDto.version());
+            } else {
+                content.append(restaurant);
+            }
+            content.append(',');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long toEpochMilli(Instant instant) {
+        // a negative timestamp leaves Last-Modified out of the conditional request check
+        return instant == null ? -1 : instant.toEpochMilli();
+    }
+
 }
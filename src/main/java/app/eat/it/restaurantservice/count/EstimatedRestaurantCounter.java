@@ -0,0 +1,36 @@
+package app.eat.it.restaurantservice.count;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Row count estimated by the Postgres planner, as of the last {@code ANALYZE} or autovacuum of the
+ * table. Reading it costs a catalog lookup however large the table grows.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "restaurant.listing.count-strategy", havingValue = "estimate")
+public class EstimatedRestaurantCounter extends RefreshedRestaurantCounter {
+
+    // reltuples is -1 until the table is first analyzed
+    private static final String ESTIMATE_SQL = "select reltuples::bigint from pg_class where oid = 'restaurant'::regclass";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstimatedRestaurantCounter(JdbcTemplate jdbcTemplate,
+                                      @Value("${restaurant.listing.count-refresh-interval:1m}") Duration refreshInterval) {
+        super(refreshInterval);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    protected long read() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+        return estimate == null ? -1 : estimate;
+    }
+}
@@ -0,0 +1,31 @@
+package app.eat.it.restaurantservice.count;
+
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Exact {@code count(*)}, paid once per refresh interval instead of once per listing.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "restaurant.listing.count-strategy", havingValue = "cached")
+public class ExactRestaurantCounter extends RefreshedRestaurantCounter {
+
+    private final RestaurantRepository repository;
+
+    public ExactRestaurantCounter(RestaurantRepository repository,
+                                  @Value("${restaurant.listing.count-refresh-interval:1m}") Duration refreshInterval) {
+        super(refreshInterval);
+        this.repository = repository;
+    }
+
+    @Override
+    protected long read() {
+        return repository.count();
+    }
+}
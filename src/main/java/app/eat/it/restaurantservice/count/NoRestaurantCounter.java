@@ -0,0 +1,16 @@
+package app.eat.it.restaurantservice.count;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+@Component
+@ConditionalOnProperty(name = "restaurant.listing.count-strategy", havingValue = "none", matchIfMissing = true)
+public class NoRestaurantCounter implements RestaurantCounter {
+
+    @Override
+    public OptionalLong count() {
+        return OptionalLong.empty();
+    }
+}
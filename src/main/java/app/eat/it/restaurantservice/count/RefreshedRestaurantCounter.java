@@ -0,0 +1,78 @@
+package app.eat.it.restaurantservice.count;
+
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a total read from the database in the background, every refresh interval, and adjusts it on
+ * every committed creation and deletion in between. Writes made behind the service layer's back only
+ * show up with the next refresh.
+ */
+@Slf4j
+public abstract class RefreshedRestaurantCounter implements RestaurantCounter {
+
+    private static final long UNKNOWN = -1;
+
+    private final Duration refreshInterval;
+    private final AtomicLong total = new AtomicLong(UNKNOWN);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "restaurant-counter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected RefreshedRestaurantCounter(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Reads the total from the database, or returns a negative value when it cannot tell.
+     */
+    protected abstract long read();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public OptionalLong count() {
+        long count = total.get();
+        return count < 0 ? OptionalLong.empty() : OptionalLong.of(count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> total.updateAndGet(count -> count < 0 ? count : count + 1);
+            case DELETED -> total.updateAndGet(count -> count <= 0 ? count : count - 1);
+            default -> {
+            }
+        }
+    }
+
+    public void refresh() {
+        try {
+            total.set(Math.max(read(), UNKNOWN));
+        } catch (RuntimeException exception) {
+            log.warn("Refreshing the restaurant count failed", exception);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package app.eat.it.restaurantservice.count;
+
+import java.util.OptionalLong;
+
+/**
+ * Total number of restaurants as reported alongside the listing. How exact and how costly it is
+ * depends on the strategy configured with {@code restaurant.listing.count-strategy}.
+ */
+public interface RestaurantCounter {
+
+    /**
+     * Returns the total, or nothing when no total is kept or it is not known yet. Never queries the
+     * database on the caller's thread.
+     */
+    OptionalLong count();
+
+}
@@ -0,0 +1,25 @@
+package app.eat.it.restaurantservice.datasource;
+
+/**
+ * Marks the current thread as serving a client that has just written, whose reads must therefore go
+ * to the primary rather than to a replica that may not have caught up yet.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+}
@@ -0,0 +1,56 @@
+package app.eat.it.restaurantservice.datasource;
+
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+import static io.micrometer.common.util.StringUtils.isNotBlank;
+
+/**
+ * Remembers the restaurants written recently, by this instance or by others as reported by the change
+ * feed, for the read-your-writes window, during which a replica may still return their previous state.
+ * Lookups of those restaurants are not cached, so a lagging replica cannot put an old row back into
+ * the cache right after the write evicted it.
+ * Without replicas every read sees the primary and nothing is remembered.
+ */
+@Component
+public class RecentWrites {
+
+    private final boolean replicated;
+    private final Cache<Long, Boolean> written;
+
+    public RecentWrites(@Value("${restaurant.datasource.replica-urls:}") String replicaUrls,
+                        @Value("${restaurant.datasource.read-your-writes-window:5s}") Duration window,
+                        @Value("${restaurant.cache.maximum-size:10000}") long maximumSize) {
+        this.replicated = isNotBlank(replicaUrls);
+        this.written = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Recorded before the commit, so the id is known to be recent before the cache entry is evicted.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        record(event.id());
+    }
+
+    public void record(Long id) {
+        if (replicated) {
+            written.put(id, Boolean.TRUE);
+        }
+    }
+
+    public boolean isRecent(Long id) {
+        return replicated && written.getIfPresent(id) != null;
+    }
+
+}
@@ -0,0 +1,17 @@
+package app.eat.it.restaurantservice.datasource;
+
+public enum ReplicaSelection {
+
+    ROUND_ROBIN,
+    LEAST_LOADED;
+
+    public static ReplicaSelection of(String value) {
+        for (ReplicaSelection selection : values()) {
+            if (selection.name().replace('_', '-').equalsIgnoreCase(value)) {
+                return selection;
+            }
+        }
+        throw new IllegalArgumentException("Replica selection " + value + " is not valid!");
+    }
+
+}
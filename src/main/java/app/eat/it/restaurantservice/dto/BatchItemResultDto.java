@@ -0,0 +1,4 @@
+package app.eat.it.restaurantservice.dto;
+
+public record BatchItemResultDto(Long id, int status, RestaurantResponseDto restaurant) {
+}
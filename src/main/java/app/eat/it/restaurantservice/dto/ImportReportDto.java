@@ -0,0 +1,12 @@
+package app.eat.it.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record ImportReportDto(long imported,
+                              long rejected,
+                              List<RejectedLineDto> rejections,
+                              @JsonProperty("duration_ms") long durationMillis,
+                              @JsonProperty("restaurants_per_second") double restaurantsPerSecond) {
+}
@@ -0,0 +1,11 @@
+package app.eat.it.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record NearbyRestaurantDto(Long id,
+                                  String name,
+                                  String address,
+                                  Double latitude,
+                                  Double longitude,
+                                  @JsonProperty("distance_km") double distanceKm) {
+}
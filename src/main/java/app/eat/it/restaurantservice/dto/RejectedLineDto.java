@@ -0,0 +1,4 @@
+package app.eat.it.restaurantservice.dto;
+
+public record RejectedLineDto(long line, String reason) {
+}
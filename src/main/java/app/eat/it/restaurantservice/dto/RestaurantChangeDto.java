@@ -0,0 +1,15 @@
+package app.eat.it.restaurantservice.dto;
+
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+public record RestaurantChangeDto(long sequence,
+                                  RestaurantChangedEvent.ChangeType type,
+                                  Long id,
+                                  String name,
+                                  String address,
+                                  Double latitude,
+                                  Double longitude,
+                                  @JsonProperty("created_at") Instant createdAt) {}
@@ -0,0 +1,23 @@
+package app.eat.it.restaurantservice.dto;
+
+import app.eat.it.restaurantservice.model.Restaurant;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of a restaurant, validators included, as kept in the cache and shared by the requests
+ * reading it.
+ */
+public record RestaurantDetailsDto(Long id,
+                                   String name,
+                                   String address,
+                                   Double latitude,
+                                   Double longitude,
+                                   Long version,
+                                   Instant lastModified) {
+
+    public static RestaurantDetailsDto of(Restaurant restaurant) {
+        return new RestaurantDetailsDto(restaurant.getId(), restaurant.getName(), restaurant.getAddress(),
+                restaurant.getLatitude(), restaurant.getLongitude(), restaurant.getVersion(), restaurant.getLastModified());
+    }
+}
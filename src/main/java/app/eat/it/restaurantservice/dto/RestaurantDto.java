@@ -1,7 +1,15 @@
 package app.eat.it.restaurantservice.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 
 public record RestaurantDto(@NotEmpty String name,
-                            @NotEmpty String address) {
+                            @NotEmpty String address,
+                            @DecimalMin("-90") @DecimalMax("90") Double latitude,
+                            @DecimalMin("-180") @DecimalMax("180") Double longitude) {
+
+    public RestaurantDto(String name, String address) {
+        this(name, address, null, null);
+    }
 }
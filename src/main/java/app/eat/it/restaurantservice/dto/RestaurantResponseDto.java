@@ -1,4 +1,8 @@
 package app.eat.it.restaurantservice.dto;
 
-public record RestaurantResponseDto(Long id, String name, String address) {
+public record RestaurantResponseDto(Long id, String name, String address, Double latitude, Double longitude, Long version) {
+
+    public RestaurantResponseDto(Long id, String name, String address) {
+        this(id, name, address, null, null, null);
+    }
 }
@@ -0,0 +1,10 @@
+package app.eat.it.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record RestaurantSliceDto(List<RestaurantResponseDto> content,
+                                 @JsonProperty("next_cursor") String nextCursor,
+                                 @JsonProperty("has_next") boolean hasNext) {
+}
@@ -0,0 +1,9 @@
+package app.eat.it.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record SlowQueryDto(String query,
+                           @JsonProperty("execution_count") long executionCount,
+                           @JsonProperty("average_ms") long averageMillis,
+                           @JsonProperty("max_ms") long maxMillis,
+                           @JsonProperty("rows") long rows) {}
@@ -0,0 +1,35 @@
+package app.eat.it.restaurantservice.event;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.model.Restaurant;
+
+/**
+ * Published for every restaurant written through the service layer, so that derived views of the
+ * catalogue can follow changes. Deletions only carry the id.
+ */
+public record RestaurantChangedEvent(ChangeType type, Long id, String name, String address,
+                                     Double latitude, Double longitude) {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static RestaurantChangedEvent created(Restaurant restaurant) {
+        return new RestaurantChangedEvent(ChangeType.CREATED, restaurant.getId(), restaurant.getName(),
+                restaurant.getAddress(), restaurant.getLatitude(), restaurant.getLongitude());
+    }
+
+    public static RestaurantChangedEvent updated(Restaurant restaurant) {
+        return new RestaurantChangedEvent(ChangeType.UPDATED, restaurant.getId(), restaurant.getName(),
+                restaurant.getAddress(), restaurant.getLatitude(), restaurant.getLongitude());
+    }
+
+    public static RestaurantChangedEvent updated(Long id, RestaurantDto restaurantDto) {
+        return new RestaurantChangedEvent(ChangeType.UPDATED, id, restaurantDto.name(),
+                restaurantDto.address(), restaurantDto.latitude(), restaurantDto.longitude());
+    }
+
+    public static RestaurantChangedEvent deleted(Long id) {
+        return new RestaurantChangedEvent(ChangeType.DELETED, id, null, null, null, null);
+    }
+}
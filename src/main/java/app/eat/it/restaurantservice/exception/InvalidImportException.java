@@ -0,0 +1,12 @@
+package app.eat.it.restaurantservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidImportException extends RuntimeException {
+
+    public InvalidImportException(String reason) {
+        super("Import can not be processed: " + reason + "!");
+    }
+}
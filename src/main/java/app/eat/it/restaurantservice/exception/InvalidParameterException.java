@@ -0,0 +1,12 @@
+package app.eat.it.restaurantservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidParameterException extends RuntimeException {
+
+    public InvalidParameterException(String name, String value) {
+        super("Parameter " + name + " with value: " + value + " is not valid!");
+    }
+}
@@ -0,0 +1,12 @@
+package app.eat.it.restaurantservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String format) {
+        super("Format " + format + " is not supported!");
+    }
+}
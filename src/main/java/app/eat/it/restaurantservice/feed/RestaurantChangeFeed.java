@@ -0,0 +1,282 @@
+package app.eat.it.restaurantservice.feed;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import app.eat.it.restaurantservice.repository.RestaurantOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the restaurant outbox to any number of subscribers. A single poller reads the outbox and
+ * keeps the most recent changes in memory; subscribers are served from there, and only fall back to
+ * the database when they resume from a sequence older than what is kept.
+ * <p>
+ * Sequences are handed out when a row is inserted but become visible when its transaction commits,
+ * so a hole in the sequence may be a transaction still in flight. The poller stops at the first hole
+ * and waits for it to fill up; a hole still open after the gap timeout belongs to a rolled back
+ * transaction and is skipped.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class RestaurantChangeFeed {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onChanges(List<RestaurantChangeDto> changes) throws Exception;
+    }
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    private final RestaurantOutboxRepository repository;
+    private final SqlStatementCounter statementCounter;
+    private final Duration pollInterval;
+    private final Duration gapTimeout;
+    private final Duration retention;
+    private final int batchSize;
+    private final int bufferSize;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "restaurant-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<RestaurantChangeDto> buffer = new ArrayDeque<>();
+    private long bufferStart;
+    private volatile long head;
+    private long gapSequence = -1;
+    private long gapDetectedAt;
+
+    public RestaurantChangeFeed(RestaurantOutboxRepository repository,
+                                SqlStatementCounter statementCounter,
+                                @Value("${restaurant.feed.poll-interval:500ms}") Duration pollInterval,
+                                @Value("${restaurant.feed.gap-timeout:5s}") Duration gapTimeout,
+                                @Value("${restaurant.feed.retention:7d}") Duration retention,
+                                @Value("${restaurant.feed.batch-size:100}") int batchSize,
+                                @Value("${restaurant.feed.buffer-size:10000}") int bufferSize) {
+        this.repository = repository;
+        this.statementCounter = statementCounter;
+        this.pollInterval = pollInterval;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+    }
+
+    // runs before the listeners that take their starting point from head()
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long latest = repository.findLatestSequence();
+        synchronized (this) {
+            head = latest;
+            bufferStart = latest;
+        }
+        poller.scheduleWithFixedDelay(this::pollSafely, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::cleanUpSafely, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        deliveryExecutor.shutdown();
+    }
+
+    /**
+     * Sequence of the last change published by the feed.
+     */
+    public long head() {
+        return head;
+    }
+
+    /**
+     * Hands the listener every change after {@code since}, in order and in batches, until the
+     * subscription is cancelled. A listener that throws is unsubscribed. Statements the subscription
+     * issues are counted for the request that subscribed, if any.
+     */
+    public Subscription subscribe(long since, Listener listener) {
+        Subscriber subscriber = new Subscriber(since, listener);
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    public void poll() {
+        List<RestaurantChangeDto> published;
+        do {
+            published = publishable(repository.findChangesAfter(head, Limit.of(batchSize)));
+            if (!published.isEmpty()) {
+                append(published);
+                subscribers.forEach(Subscriber::schedule);
+            }
+        } while (published.size() == batchSize);
+    }
+
+    private synchronized List<RestaurantChangeDto> publishable(List<RestaurantChangeDto> changes) {
+        List<RestaurantChangeDto> published = new ArrayList<>(changes.size());
+        long expected = head + 1;
+        for (RestaurantChangeDto change : changes) {
+            if (change.sequence() != expected && !gapExpired(expected)) {
+                break;
+            }
+            published.add(change);
+            expected = change.sequence() + 1;
+        }
+        return published;
+    }
+
+    private boolean gapExpired(long sequence) {
+        long now = System.nanoTime();
+        if (gapSequence != sequence) {
+            gapSequence = sequence;
+            gapDetectedAt = now;
+            return false;
+        }
+        if (now - gapDetectedAt < gapTimeout.toNanos()) {
+            return false;
+        }
+        log.warn("Skipping restaurant change feed sequence {} not committed within {}", sequence, gapTimeout);
+        return true;
+    }
+
+    private synchronized void append(List<RestaurantChangeDto> changes) {
+        buffer.addAll(changes);
+        while (buffer.size() > bufferSize) {
+            bufferStart = buffer.removeFirst().sequence();
+        }
+        head = changes.get(changes.size() - 1).sequence();
+    }
+
+    private List<RestaurantChangeDto> read(long position) {
+        long currentHead;
+        synchronized (this) {
+            currentHead = head;
+            if (position >= currentHead) {
+                return List.of();
+            }
+            if (position >= bufferStart) {
+                return readBuffer(position);
+            }
+        }
+        // resuming from further back than the buffer reaches
+        List<RestaurantChangeDto> changes = repository.findChangesAfter(position, Limit.of(batchSize))
+                .stream()
+                .filter(change -> change.sequence() <= currentHead)
+                .toList();
+        if (!changes.isEmpty()) {
+            return changes;
+        }
+        synchronized (this) {
+            // the changes in between are past retention
+            return readBuffer(bufferStart);
+        }
+    }
+
+    private List<RestaurantChangeDto> readBuffer(long position) {
+        List<RestaurantChangeDto> changes = new ArrayList<>();
+        Iterator<RestaurantChangeDto> iterator = buffer.descendingIterator();
+        while (iterator.hasNext()) {
+            RestaurantChangeDto change = iterator.next();
+            if (change.sequence() <= position) {
+                break;
+            }
+            changes.add(change);
+        }
+        Collections.reverse(changes);
+        return changes.size() > batchSize ? List.copyOf(changes.subList(0, batchSize)) : changes;
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException exception) {
+            log.warn("Polling the restaurant outbox failed", exception);
+        }
+    }
+
+    private void cleanUpSafely() {
+        try {
+            int deleted = repository.deleteCreatedBefore(Instant.now().minus(retention));
+            log.debug("Removed {} restaurant changes older than {}", deleted, retention);
+        } catch (RuntimeException exception) {
+            log.warn("Cleaning up the restaurant outbox failed", exception);
+        }
+    }
+
+    /**
+     * A subscriber has at most one delivery running at a time, so each sees its changes in order
+     * and a slow one holds back nobody but itself.
+     */
+    private class Subscriber implements Subscription {
+
+        private final Listener listener;
+        private final List<SqlStatementCounter.Count> requester;
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        private volatile long position;
+        private volatile boolean cancelled;
+
+        private Subscriber(long position, Listener listener) {
+            this.position = position;
+            this.listener = listener;
+            SqlStatementCounter.Count count = statementCounter.current();
+            this.requester = count == null ? List.of() : List.of(count);
+        }
+
+        void schedule() {
+            if (!cancelled && position < head && delivering.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            try {
+                List<RestaurantChangeDto> changes;
+                while (!cancelled && !(changes = statementCounter.countFor(requester, () -> read(position))).isEmpty()) {
+                    listener.onChanges(changes);
+                    position = changes.get(changes.size() - 1).sequence();
+                }
+            } catch (Exception exception) {
+                log.debug("Dropping restaurant change feed subscriber", exception);
+                cancel();
+            } finally {
+                delivering.set(false);
+            }
+            // changes published while the last batch was being sent
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscribers.remove(this);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package app.eat.it.restaurantservice.feed;
+
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every {@link RestaurantChangedEvent} to the outbox in the transaction that published it.
+ * The events of a transaction are collected and inserted as one batch just before it commits, so a
+ * change reaches the outbox if and only if it is committed.
+ */
+@Component
+@Profile("!reactive")
+public class RestaurantOutboxWriter {
+
+    private static final String INSERT_SQL =
+            "insert into restaurant_outbox (type, restaurant_id, name, address, latitude, longitude, created_at) " +
+                    "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RestaurantOutboxWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<RestaurantChangedEvent> pending = (List<RestaurantChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new OutboxSynchronization(pending));
+        }
+        pending.add(event);
+    }
+
+    private void write(List<RestaurantChangedEvent> events) {
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.type().name());
+            statement.setLong(2, event.id());
+            statement.setString(3, event.name());
+            statement.setString(4, event.address());
+            statement.setObject(5, event.latitude(), Types.DOUBLE);
+            statement.setObject(6, event.longitude(), Types.DOUBLE);
+            statement.setObject(7, createdAt.atOffset(ZoneOffset.UTC));
+        });
+    }
+
+    private class OutboxSynchronization implements TransactionSynchronization {
+
+        private final List<RestaurantChangedEvent> events;
+
+        private OutboxSynchronization(List<RestaurantChangedEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RestaurantOutboxWriter.this);
+        }
+    }
+
+}
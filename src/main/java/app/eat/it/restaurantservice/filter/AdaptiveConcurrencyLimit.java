@@ -0,0 +1,150 @@
+package app.eat.it.restaurantservice.filter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows the latency of the requests it lets through. A long term average of
+ * the latency stands for the service at ease; when recent requests take longer than that, work is
+ * queueing up somewhere downstream and the limit shrinks in proportion, otherwise it grows by about
+ * its square root. A failed request cuts the limit multiplicatively.
+ * <p>
+ * Requests over the limit wait for a slot in a short bounded queue, and are rejected outright once
+ * the queue is full.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    public enum Outcome {
+        ACCEPTED, QUEUED, REJECTED
+    }
+
+    private static final double LONG_RTT_SMOOTHING = 2.0 / (600 + 1);
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private volatile double limit;
+    private double longRtt;
+    private int inFlight;
+    private int queued;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, int maxQueueSize, Duration maxQueueWait) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    /**
+     * Takes a slot, waiting up to the maximum queue wait for one. Every accepted or queued outcome
+     * must be followed by exactly one {@link #release}.
+     */
+    public Outcome acquire() {
+        lock.lock();
+        try {
+            if (queued == 0 && inFlight < getLimit()) {
+                inFlight++;
+                return Outcome.ACCEPTED;
+            }
+            if (queued >= maxQueueSize) {
+                return Outcome.REJECTED;
+            }
+            queued++;
+            try {
+                long remaining = maxQueueWait.toNanos();
+                while (inFlight >= getLimit()) {
+                    if (remaining <= 0) {
+                        return Outcome.REJECTED;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return Outcome.QUEUED;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return Outcome.REJECTED;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the slot back along with how long the request took and whether it failed under load.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            boolean applicationLimited = inFlight < limit / 2;
+            inFlight--;
+            int previousLimit = getLimit();
+            update(rttNanos, dropped, applicationLimited);
+            if (getLimit() > previousLimit) {
+                released.signalAll();
+            } else {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, boolean dropped, boolean applicationLimited) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        double shortRtt = rttNanos;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_SMOOTHING;
+        }
+        if (longRtt / shortRtt > 2) {
+            // latency has dropped for good, so let the baseline catch up instead of growing without bound
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING;
+        if (applicationLimited && newLimit > limit) {
+            // too little traffic to tell whether a higher limit would hold
+            return;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
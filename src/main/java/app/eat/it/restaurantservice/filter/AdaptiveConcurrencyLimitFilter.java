@@ -0,0 +1,104 @@
+package app.eat.it.restaurantservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds load in front of the controller with separate adaptive limits for reads and writes, so a burst
+ * of one cannot starve the other. Requests over the limit are answered 503 with a {@code Retry-After}
+ * straight away instead of piling up on the connection pool. Long-lived requests, such as the change
+ * feed, exports and imports, are left out: they would hold a slot for their whole duration and skew
+ * the latency.
+ */
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_PREFIX = "restaurant.limiter";
+
+    private final AdaptiveConcurrencyLimit readLimit;
+    private final AdaptiveConcurrencyLimit writeLimit;
+    private final List<String> excludedPaths;
+    private final Map<AdaptiveConcurrencyLimit.Outcome, Counter> readCounters;
+    private final Map<AdaptiveConcurrencyLimit.Outcome, Counter> writeCounters;
+
+    public AdaptiveConcurrencyLimitFilter(AdaptiveConcurrencyLimit readLimit,
+                                          AdaptiveConcurrencyLimit writeLimit,
+                                          List<String> excludedPaths,
+                                          MeterRegistry meterRegistry) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.excludedPaths = excludedPaths;
+        this.readCounters = registerMeters(meterRegistry, "read", readLimit);
+        this.writeCounters = registerMeters(meterRegistry, "write", writeLimit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = isRead(request);
+        AdaptiveConcurrencyLimit limit = read ? readLimit : writeLimit;
+        AdaptiveConcurrencyLimit.Outcome outcome = limit.acquire();
+        (read ? readCounters : writeCounters).get(outcome).increment();
+        if (outcome == AdaptiveConcurrencyLimit.Outcome.REJECTED) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static Map<AdaptiveConcurrencyLimit.Outcome, Counter> registerMeters(MeterRegistry meterRegistry,
+                                                                                 String budget,
+                                                                                 AdaptiveConcurrencyLimit limit) {
+        Gauge.builder(METRIC_PREFIX + ".limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("budget", budget)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("budget", budget)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queued", limit, AdaptiveConcurrencyLimit::getQueued)
+                .tag("budget", budget)
+                .register(meterRegistry);
+        Map<AdaptiveConcurrencyLimit.Outcome, Counter> counters = new EnumMap<>(AdaptiveConcurrencyLimit.Outcome.class);
+        for (AdaptiveConcurrencyLimit.Outcome outcome : AdaptiveConcurrencyLimit.Outcome.values()) {
+            counters.put(outcome, Counter.builder(METRIC_PREFIX + ".requests")
+                    .tag("budget", budget)
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return counters;
+    }
+
+}
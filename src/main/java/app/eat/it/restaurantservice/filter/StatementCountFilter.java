@@ -0,0 +1,116 @@
+package app.eat.it.restaurantservice.filter;
+
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, per endpoint, and logs requests going over the
+ * threshold, which is how N+1 selects and reads before writes usually show up. A request that goes
+ * async keeps its count across dispatches and is recorded once the async processing completes.
+ */
+@Slf4j
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "restaurant.request.statements";
+
+    private static final String COUNT_ATTRIBUTE = StatementCountFilter.class.getName() + ".COUNT";
+
+    private final SqlStatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public StatementCountFilter(SqlStatementCounter statementCounter, MeterRegistry meterRegistry, int warnThreshold) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Count count = (SqlStatementCounter.Count) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = statementCounter.start();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        } else {
+            statementCounter.resume(count);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statementCounter.stop();
+            if (!isAsyncDispatch(request)) {
+                if (request.isAsyncStarted()) {
+                    // the rest of the request runs in later dispatches, it is recorded once they are done
+                    request.getAsyncContext().addListener(new RecordOnComplete(request, count));
+                } else {
+                    record(request, count);
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Count count) {
+        int statements = count.get();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > warnThreshold) {
+            log.warn("{} {} issued {} SQL statements", request.getMethod(), uri, statements);
+        }
+    }
+
+    private class RecordOnComplete implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final SqlStatementCounter.Count count;
+
+        private RecordOnComplete(HttpServletRequest request, SqlStatementCounter.Count count) {
+            this.request = request;
+            this.count = count;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, count);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+}
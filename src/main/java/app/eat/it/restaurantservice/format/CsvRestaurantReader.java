@@ -0,0 +1,120 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.exception.InvalidImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV with a header row. Columns are matched by name, so files produced by
+ * the export endpoint can be imported as they are; unknown columns are ignored and the coordinate
+ * columns are optional.
+ */
+public class CsvRestaurantReader implements RestaurantReader {
+
+    private final BufferedReader reader;
+    private final int nameColumn;
+    private final int addressColumn;
+    private final int latitudeColumn;
+    private final int longitudeColumn;
+    private long lineNumber;
+
+    public CsvRestaurantReader(InputStream inputStream) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header = readFields();
+        if (header == null) {
+            throw new InvalidImportException("CSV header is missing");
+        }
+        List<String> columns = header.stream().map(column -> column.trim().toLowerCase()).toList();
+        this.nameColumn = columns.indexOf("name");
+        this.addressColumn = columns.indexOf("address");
+        this.latitudeColumn = columns.indexOf("latitude");
+        this.longitudeColumn = columns.indexOf("longitude");
+        if (nameColumn < 0 || addressColumn < 0) {
+            throw new InvalidImportException("CSV header must contain name and address columns");
+        }
+    }
+
+    @Override
+    public ImportRecord read() throws IOException {
+        List<String> fields;
+        long recordLine;
+        do {
+            recordLine = lineNumber + 1;
+            fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        if (fields.size() <= Math.max(nameColumn, addressColumn)) {
+            return ImportRecord.invalid(recordLine, "expected at least " + (Math.max(nameColumn, addressColumn) + 1) + " columns");
+        }
+        try {
+            return ImportRecord.valid(recordLine, new RestaurantDto(fields.get(nameColumn), fields.get(addressColumn),
+                    coordinate(fields, latitudeColumn), coordinate(fields, longitudeColumn)));
+        } catch (NumberFormatException exception) {
+            return ImportRecord.invalid(recordLine, "coordinates must be decimal numbers");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static Double coordinate(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size() || fields.get(column).isBlank()) {
+            return null;
+        }
+        return Double.valueOf(fields.get(column).trim());
+    }
+
+    private List<String> readFields() throws IOException {
+        int character = reader.read();
+        if (character < 0) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (character >= 0) {
+            if (quoted) {
+                if (character == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (character == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) character);
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (character == '\n') {
+                break;
+            } else if (character != '\r') {
+                field.append((char) character);
+            }
+            character = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
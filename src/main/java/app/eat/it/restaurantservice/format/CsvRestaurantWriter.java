@@ -0,0 +1,57 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+public class CsvRestaurantWriter implements RestaurantWriter {
+
+    static final String HEADER = "id,name,address,latitude,longitude,version";
+
+    private final BufferedWriter writer;
+
+    public CsvRestaurantWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.writer.write(HEADER);
+        this.writer.newLine();
+    }
+
+    @Override
+    public void write(RestaurantResponseDto restaurant) throws IOException {
+        writer.write(String.valueOf(restaurant.id()));
+        writer.write(',');
+        writer.write(escape(restaurant.name()));
+        writer.write(',');
+        writer.write(escape(restaurant.address()));
+        writer.write(',');
+        writer.write(valueOf(restaurant.latitude()));
+        writer.write(',');
+        writer.write(valueOf(restaurant.longitude()));
+        writer.write(',');
+        writer.write(valueOf(restaurant.version()));
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    public static String valueOf(Object value) {
+        return value == null ? "" : String.valueOf(value);
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
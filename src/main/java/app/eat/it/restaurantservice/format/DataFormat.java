@@ -0,0 +1,29 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.exception.UnsupportedFormatException;
+import org.springframework.http.MediaType;
+
+public enum DataFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat of(String format) {
+        for (DataFormat dataFormat : values()) {
+            if (dataFormat.name().equalsIgnoreCase(format)) {
+                return dataFormat;
+            }
+        }
+        throw new UnsupportedFormatException(format);
+    }
+}
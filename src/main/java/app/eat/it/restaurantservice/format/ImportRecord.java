@@ -0,0 +1,21 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+
+/**
+ * One record of an import file: either a parsed restaurant or the reason it could not be parsed.
+ */
+public record ImportRecord(long line, RestaurantDto restaurant, String error) {
+
+    public static ImportRecord valid(long line, RestaurantDto restaurant) {
+        return new ImportRecord(line, restaurant, null);
+    }
+
+    public static ImportRecord invalid(long line, String error) {
+        return new ImportRecord(line, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,51 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public class NdjsonRestaurantReader implements RestaurantReader {
+
+    private final ObjectReader objectReader;
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    public NdjsonRestaurantReader(ObjectMapper objectMapper, InputStream inputStream) {
+        this.objectReader = objectMapper.readerFor(RestaurantDto.class);
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ImportRecord read() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        try {
+            RestaurantDto restaurant = objectReader.readValue(line);
+            // a literal null is valid JSON but carries no restaurant
+            return restaurant == null
+                    ? ImportRecord.invalid(lineNumber, "empty record")
+                    : ImportRecord.valid(lineNumber, restaurant);
+        } catch (JsonProcessingException exception) {
+            return ImportRecord.invalid(lineNumber, "malformed JSON: " + exception.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
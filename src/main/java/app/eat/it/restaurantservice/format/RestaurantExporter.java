@@ -0,0 +1,45 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.service.RestaurantService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Component
+@Profile("!reactive")
+public class RestaurantExporter {
+
+    private final RestaurantService restaurantService;
+    private final ObjectMapper objectMapper;
+
+    public RestaurantExporter(RestaurantService restaurantService, ObjectMapper objectMapper) {
+        this.restaurantService = restaurantService;
+        this.objectMapper = objectMapper;
+    }
+
+    public StreamingResponseBody export(DataFormat format) {
+        return outputStream -> {
+            try (RestaurantWriter writer = createWriter(format, outputStream)) {
+                restaurantService.exportRestaurants(restaurant -> {
+                    try {
+                        writer.write(restaurant);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            }
+        };
+    }
+
+    private RestaurantWriter createWriter(DataFormat format, OutputStream outputStream) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRestaurantWriter(objectMapper, outputStream);
+            case CSV -> new CsvRestaurantWriter(outputStream);
+        };
+    }
+}
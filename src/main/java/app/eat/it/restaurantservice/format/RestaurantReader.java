@@ -0,0 +1,16 @@
+package app.eat.it.restaurantservice.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads restaurants incrementally from an underlying stream, one record at a time.
+ */
+public interface RestaurantReader extends Closeable {
+
+    /**
+     * Returns the next record, or {@code null} once the input is exhausted.
+     */
+    ImportRecord read() throws IOException;
+
+}
@@ -0,0 +1,16 @@
+package app.eat.it.restaurantservice.format;
+
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes restaurants one by one to an underlying stream. Closing a writer flushes it but leaves
+ * the underlying stream open.
+ */
+public interface RestaurantWriter extends Closeable {
+
+    void write(RestaurantResponseDto restaurant) throws IOException;
+
+}
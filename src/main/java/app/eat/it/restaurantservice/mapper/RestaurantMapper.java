@@ -1,9 +1,11 @@
 package app.eat.it.restaurantservice.mapper;
 
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
 import app.eat.it.restaurantservice.dto.RestaurantDto;
 import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
 import app.eat.it.restaurantservice.model.Restaurant;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -11,8 +13,13 @@ public interface RestaurantMapper {
 
     RestaurantMapper INSTANCE = Mappers.getMapper(RestaurantMapper.class);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Restaurant toModel(RestaurantDto restaurantDto);
 
     RestaurantResponseDto toDto(Restaurant restaurant);
 
+    RestaurantResponseDto toDto(RestaurantDetailsDto restaurant);
+
 }
@@ -0,0 +1,56 @@
+package app.eat.it.restaurantservice.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Reports every statement prepared on its connections to the {@link SqlStatementCounter}. Sitting in
+ * front of the connection pool, it sees Hibernate and {@code JdbcTemplate} statements alike; a JDBC
+ * batch is one statement, as it is one round trip.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final SqlStatementCounter statementCounter;
+
+    public CountingDataSource(DataSource targetDataSource, SqlStatementCounter statementCounter) {
+        super(targetDataSource);
+        this.statementCounter = statementCounter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (STATEMENT_FACTORIES.contains(method.getName())) {
+                            statementCounter.increment();
+                        }
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException exception) {
+                            throw exception.getTargetException();
+                        }
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,56 @@
+package app.eat.it.restaurantservice.metrics;
+
+import app.eat.it.restaurantservice.dto.SlowQueryDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the JPQL queries with the longest single execution since startup,
+ * taken from the Hibernate statistics.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public SlowQueriesEndpoint(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public List<SlowQueryDto> slowQueries(@Nullable Integer limit) {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return List.of();
+        }
+        Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> toDto(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(SlowQueryDto::maxMillis).reversed())
+                .limit(limit != null ? limit : DEFAULT_LIMIT)
+                .toList();
+    }
+
+    private SlowQueryDto toDto(String query, QueryStatistics queryStatistics) {
+        return new SlowQueryDto(query,
+                queryStatistics.getExecutionCount(),
+                queryStatistics.getExecutionAvgTime(),
+                queryStatistics.getExecutionMaxTime(),
+                queryStatistics.getExecutionRowCount());
+    }
+
+}
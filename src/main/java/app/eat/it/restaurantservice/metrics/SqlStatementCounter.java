@@ -0,0 +1,89 @@
+package app.eat.it.restaurantservice.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements issued on behalf of a request. A count is started on the thread handling
+ * the request and can be carried to other threads: {@link #resume(Count)} attaches it to the thread of
+ * an async dispatch, and {@link #countFor(Collection, Supplier)} charges work done elsewhere, like a
+ * batched fetch, to every request waiting on it. Statements issued with no count attached are ignored.
+ */
+@Component
+public class SqlStatementCounter {
+
+    public static class Count {
+
+        private final AtomicInteger statements = new AtomicInteger();
+
+        void increment() {
+            statements.incrementAndGet();
+        }
+
+        public int get() {
+            return statements.get();
+        }
+    }
+
+    private final ThreadLocal<Count> current = new ThreadLocal<>();
+
+    public Count start() {
+        Count count = new Count();
+        current.set(count);
+        return count;
+    }
+
+    public void resume(Count count) {
+        current.set(count);
+    }
+
+    /**
+     * Detaches the count from the current thread and returns what it holds so far.
+     */
+    public int stop() {
+        Count count = current.get();
+        current.remove();
+        return count == null ? 0 : count.get();
+    }
+
+    public Count current() {
+        return current.get();
+    }
+
+    /**
+     * Runs the work with its statements counted once for each of the given counts, which may still be
+     * joined while it runs.
+     */
+    public <T> T countFor(Collection<Count> counts, Supplier<T> work) {
+        Count previous = current.get();
+        current.set(new Count() {
+            @Override
+            void increment() {
+                counts.forEach(Count::increment);
+            }
+        });
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Called for every statement prepared through the {@link CountingDataSource}.
+     */
+    public void increment() {
+        Count count = current.get();
+        if (count != null) {
+            count.increment();
+        }
+    }
+
+}
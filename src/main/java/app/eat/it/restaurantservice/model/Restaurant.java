@@ -3,18 +3,51 @@ package app.eat.it.restaurantservice.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "restaurant")
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class Restaurant {
 
+    /**
+     * Every value of {@code restaurant_seq} is the lowest of a block of this many ids (pooled-lo), which
+     * is how the bulk import and the reactive mode reserve ids alongside Hibernate.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
+    @GenericGenerator(name = "restaurant_seq", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "restaurant_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     private String name;
 
     private String address;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private Instant lastModified;
+
+    public Restaurant(Long id, String name, String address) {
+        this(id, name, address, null, null, null, null);
+    }
 }
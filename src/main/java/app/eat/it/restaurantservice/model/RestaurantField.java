@@ -0,0 +1,64 @@
+package app.eat.it.restaurantservice.model;
+
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.exception.InvalidParameterException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Attributes of a restaurant a client can ask for through the {@code fields} parameter, named as in
+ * {@link RestaurantResponseDto}.
+ */
+public enum RestaurantField {
+
+    ID("id", RestaurantResponseDto::id),
+    NAME("name", RestaurantResponseDto::name),
+    ADDRESS("address", RestaurantResponseDto::address),
+    LATITUDE("latitude", RestaurantResponseDto::latitude),
+    LONGITUDE("longitude", RestaurantResponseDto::longitude),
+    VERSION("version", RestaurantResponseDto::version);
+
+    private final String attribute;
+    private final Function<RestaurantResponseDto, Object> accessor;
+
+    RestaurantField(String attribute, Function<RestaurantResponseDto, Object> accessor) {
+        this.attribute = attribute;
+        this.accessor = accessor;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma separated list of attribute names. The fields come back in declaration order
+     * whatever the order they were asked in, so equal selections always yield the same query.
+     */
+    public static Set<RestaurantField> parse(String fields) {
+        Set<RestaurantField> selected = EnumSet.noneOf(RestaurantField.class);
+        for (String name : fields.split(",")) {
+            selected.add(of(fields, name.trim()));
+        }
+        return Collections.unmodifiableSet(selected);
+    }
+
+    public static Map<String, Object> select(RestaurantResponseDto restaurant, Set<RestaurantField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach(field -> values.put(field.attribute, field.accessor.apply(restaurant)));
+        return values;
+    }
+
+    private static RestaurantField of(String fields, String name) {
+        for (RestaurantField field : values()) {
+            if (field.attribute.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new InvalidParameterException("fields", fields);
+    }
+}
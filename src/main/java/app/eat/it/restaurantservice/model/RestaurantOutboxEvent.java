@@ -0,0 +1,40 @@
+package app.eat.it.restaurantservice.model;
+
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A restaurant change recorded in the transaction that made it. The id is the position of the change
+ * in the feed; it comes from an identity column so that it follows insertion order across instances.
+ */
+@Entity
+@Table(name = "restaurant_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private RestaurantChangedEvent.ChangeType type;
+
+    private Long restaurantId;
+
+    private String name;
+
+    private String address;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,37 @@
+package app.eat.it.restaurantservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * The {@code restaurant} table as mapped by Spring Data R2DBC in the reactive mode, column for column
+ * the same as {@link Restaurant}.
+ */
+@Table("restaurant")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantRow {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String address;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Version
+    private Long version;
+
+    private Instant lastModified;
+}
@@ -0,0 +1,66 @@
+package app.eat.it.restaurantservice.repository;
+
+import app.eat.it.restaurantservice.model.RestaurantRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface ReactiveRestaurantRepository extends R2dbcRepository<RestaurantRow, Long> {
+
+    Flux<RestaurantRow> findAllBy(Pageable pageable);
+
+    /**
+     * Lowest of the next block of {@link app.eat.it.restaurantservice.model.Restaurant#ID_ALLOCATION_SIZE} ids.
+     */
+    @Query("select nextval('restaurant_seq')")
+    Mono<Long> nextIdBlock();
+
+    @Modifying
+    @Query("update restaurant set name = :name, address = :address, " +
+            "latitude = :latitude, longitude = :longitude, version = version + 1, " +
+            "last_modified = :lastModified where id = :id")
+    Mono<Integer> updateById(@Param("id") Long id,
+                             @Param("name") String name,
+                             @Param("address") String address,
+                             @Param("latitude") Double latitude,
+                             @Param("longitude") Double longitude,
+                             @Param("lastModified") Instant lastModified);
+
+    @Modifying
+    @Query("update restaurant set name = :name, address = :address, " +
+            "latitude = :latitude, longitude = :longitude, version = version + 1, " +
+            "last_modified = :lastModified where id = :id and version = :version")
+    Mono<Integer> updateByIdAndVersion(@Param("id") Long id,
+                                       @Param("version") Long version,
+                                       @Param("name") String name,
+                                       @Param("address") String address,
+                                       @Param("latitude") Double latitude,
+                                       @Param("longitude") Double longitude,
+                                       @Param("lastModified") Instant lastModified);
+
+    @Modifying
+    @Query("delete from restaurant where id = :id")
+    Mono<Integer> deleteRestaurantById(@Param("id") Long id);
+
+    /**
+     * Appends the same row as {@link app.eat.it.restaurantservice.feed.RestaurantOutboxWriter}, so the
+     * change feed of servlet instances on the same database sees reactive writes too.
+     */
+    @Modifying
+    @Query("insert into restaurant_outbox (type, restaurant_id, name, address, latitude, longitude, created_at) " +
+            "values (:type, :restaurantId, :name, :address, :latitude, :longitude, :createdAt)")
+    Mono<Integer> insertChange(@Param("type") String type,
+                               @Param("restaurantId") Long restaurantId,
+                               @Param("name") String name,
+                               @Param("address") String address,
+                               @Param("latitude") Double latitude,
+                               @Param("longitude") Double longitude,
+                               @Param("createdAt") Instant createdAt);
+
+}
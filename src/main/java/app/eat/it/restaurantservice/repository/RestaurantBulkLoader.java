@@ -0,0 +1,115 @@
+package app.eat.it.restaurantservice.repository;
+
+import app.eat.it.restaurantservice.format.CsvRestaurantWriter;
+import app.eat.it.restaurantservice.model.Restaurant;
+import org.postgresql.PGConnection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts restaurants bypassing the persistence context: with Postgres {@code COPY}, otherwise with a
+ * plain JDBC batch. Both take part in the surrounding transaction.
+ */
+@Repository
+@Profile("!reactive")
+public class RestaurantBulkLoader {
+
+    private static final String COPY_SQL =
+            "COPY restaurant (id, name, address, latitude, longitude, version, last_modified) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL =
+            "insert into restaurant (id, name, address, latitude, longitude, version, last_modified) " +
+                    "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String nextValuesSql;
+
+    public RestaurantBulkLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves ids from {@code restaurant_seq}. Every sequence value is the lowest of a block of
+     * {@link Restaurant#ID_ALLOCATION_SIZE} ids, exactly as Hibernate's pooled-lo optimizer reads it, so
+     * ids handed out here never collide with the ones Hibernate assigns.
+     */
+    public List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + Restaurant.ID_ALLOCATION_SIZE - 1) / Restaurant.ID_ALLOCATION_SIZE;
+            for (Long low : jdbcTemplate.queryForList(nextValuesSql(), Long.class, blocks)) {
+                for (long id = low; id < low + Restaurant.ID_ALLOCATION_SIZE && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    public void load(List<Restaurant> restaurants) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), restaurants);
+            } else {
+                insert(restaurants);
+            }
+            return null;
+        });
+    }
+
+    private void copy(PGConnection connection, List<Restaurant> restaurants) throws SQLException {
+        StringBuilder rows = new StringBuilder(restaurants.size() * 64);
+        for (Restaurant restaurant : restaurants) {
+            rows.append(restaurant.getId()).append(',')
+                    .append(CsvRestaurantWriter.escape(restaurant.getName())).append(',')
+                    .append(CsvRestaurantWriter.escape(restaurant.getAddress())).append(',')
+                    .append(CsvRestaurantWriter.valueOf(restaurant.getLatitude())).append(',')
+                    .append(CsvRestaurantWriter.valueOf(restaurant.getLongitude())).append(',')
+                    .append(restaurant.getVersion()).append(',')
+                    .append(restaurant.getLastModified()).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_SQL, new StringReader(rows.toString()));
+        } catch (IOException exception) {
+            throw new DataAccessResourceFailureException("COPY into restaurant failed", exception);
+        }
+    }
+
+    private void insert(List<Restaurant> restaurants) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, restaurants, restaurants.size(), (statement, restaurant) -> {
+            statement.setLong(1, restaurant.getId());
+            statement.setString(2, restaurant.getName());
+            statement.setString(3, restaurant.getAddress());
+            statement.setObject(4, restaurant.getLatitude(), Types.DOUBLE);
+            statement.setObject(5, restaurant.getLongitude(), Types.DOUBLE);
+            statement.setLong(6, restaurant.getVersion());
+            statement.setObject(7, restaurant.getLastModified().atOffset(ZoneOffset.UTC));
+        });
+    }
+
+    private String nextValuesSql() {
+        if (nextValuesSql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            nextValuesSql = switch (String.valueOf(product)) {
+                case "PostgreSQL" -> "select nextval('restaurant_seq') from generate_series(1, ?)";
+                case "H2" -> "select next value for restaurant_seq from system_range(1, ?)";
+                default -> throw new InvalidDataAccessApiUsageException(
+                        "Allocating restaurant ids in bulk is only supported on PostgreSQL and H2, not on " + product);
+            };
+        }
+        return nextValuesSql;
+    }
+}
@@ -0,0 +1,17 @@
+package app.eat.it.restaurantservice.repository;
+
+import app.eat.it.restaurantservice.model.RestaurantField;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface RestaurantFieldRepository {
+
+    /**
+     * Reads a page selecting only the given fields, each row as a map from attribute name to value.
+     */
+    List<Map<String, Object>> findAllFields(Set<RestaurantField> fields, Pageable pageable);
+
+}
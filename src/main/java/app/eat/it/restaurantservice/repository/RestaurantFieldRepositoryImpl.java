@@ -0,0 +1,56 @@
+package app.eat.it.restaurantservice.repository;
+
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class RestaurantFieldRepositoryImpl implements RestaurantFieldRepository {
+
+    private final EntityManager entityManager;
+
+    RestaurantFieldRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Set<RestaurantField> fields, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        Root<Restaurant> restaurant = criteria.from(Restaurant.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> restaurant.get(field.getAttribute()).alias(field.getAttribute()))
+                .toList();
+        criteria.multiselect(selections);
+        criteria.orderBy(QueryUtils.toOrders(pageable.getSort(), restaurant, builder));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(criteria);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList()
+                .stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, Set<RestaurantField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach(field -> values.put(field.getAttribute(), tuple.get(field.getAttribute())));
+        return values;
+    }
+
+}
@@ -0,0 +1,30 @@
+package app.eat.it.restaurantservice.repository;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.model.RestaurantOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RestaurantOutboxRepository extends JpaRepository<RestaurantOutboxEvent, Long> {
+
+    @Query("select new app.eat.it.restaurantservice.dto.RestaurantChangeDto(" +
+            "e.id, e.type, e.restaurantId, e.name, e.address, e.latitude, e.longitude, e.createdAt) " +
+            "from RestaurantOutboxEvent e where e.id > :since order by e.id")
+    List<RestaurantChangeDto> findChangesAfter(@Param("since") long since, Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from RestaurantOutboxEvent e")
+    long findLatestSequence();
+
+    @Transactional
+    @Modifying
+    @Query("delete from RestaurantOutboxEvent e where e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+
+}
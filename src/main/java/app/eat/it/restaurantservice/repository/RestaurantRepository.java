@@ -1,13 +1,67 @@
 package app.eat.it.restaurantservice.repository;
 
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
 import app.eat.it.restaurantservice.model.Restaurant;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.lang.NonNullApi;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-    Page<Restaurant> findAll(Pageable pageable);
+public interface RestaurantRepository extends JpaRepository<Restaurant, Long>, RestaurantFieldRepository {
+
+    String SELECT_RESPONSE_DTO = "select new app.eat.it.restaurantservice.dto.RestaurantResponseDto(" +
+            "r.id, r.name, r.address, r.latitude, r.longitude, r.version) from Restaurant r";
+
+    @Query(SELECT_RESPONSE_DTO)
+    List<RestaurantResponseDto> findAllProjectedBy(Pageable pageable);
+
+    @Query(SELECT_RESPONSE_DTO + " where r.id in :ids")
+    List<RestaurantResponseDto> findAllProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESPONSE_DTO + " order by r.id")
+    Stream<RestaurantResponseDto> streamAllProjectedBy();
+
+    Window<Restaurant> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Modifying
+    @Query("update Restaurant r set r.name = :name, r.address = :address, " +
+            "r.latitude = :latitude, r.longitude = :longitude, r.version = r.version + 1, " +
+            "r.lastModified = :lastModified where r.id = :id")
+    int updateById(@Param("id") Long id,
+                   @Param("name") String name,
+                   @Param("address") String address,
+                   @Param("latitude") Double latitude,
+                   @Param("longitude") Double longitude,
+                   @Param("lastModified") Instant lastModified);
+
+    @Modifying
+    @Query("update Restaurant r set r.name = :name, r.address = :address, " +
+            "r.latitude = :latitude, r.longitude = :longitude, r.version = r.version + 1, " +
+            "r.lastModified = :lastModified where r.id = :id and r.version = :version")
+    int updateByIdAndVersion(@Param("id") Long id,
+                             @Param("version") Long version,
+                             @Param("name") String name,
+                             @Param("address") String address,
+                             @Param("latitude") Double latitude,
+                             @Param("longitude") Double longitude,
+                             @Param("lastModified") Instant lastModified);
+
+    @Modifying
+    @Query("delete from Restaurant r where r.id = :id")
+    int deleteRestaurantById(@Param("id") Long id);
 
 }
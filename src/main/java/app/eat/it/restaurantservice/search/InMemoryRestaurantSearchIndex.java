@@ -0,0 +1,295 @@
+package app.eat.it.restaurantservice.search;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps names and addresses of all restaurants in memory, indexed by trigram for substring and
+ * typo tolerant matching and by term for prefix matching. The index is built from the database once
+ * the application is ready and then follows the {@link RestaurantChangeFeed}, so it also sees the
+ * writes of other instances. The feed is replayed from the sequence read before the export started:
+ * writes committed while exporting are applied again on top of it, which is harmless since a change
+ * carries the whole indexed state of its restaurant.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "restaurant.search.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRestaurantSearchIndex implements RestaurantSearchIndex {
+
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingDouble(Hit::score).reversed()
+            .thenComparing(Hit::id);
+
+    private final RestaurantService restaurantService;
+    private final RestaurantChangeFeed changeFeed;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> nameTrigrams = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> addressTrigrams = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+
+    public InMemoryRestaurantSearchIndex(RestaurantService restaurantService, RestaurantChangeFeed changeFeed) {
+        this.restaurantService = restaurantService;
+        this.changeFeed = changeFeed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long since = changeFeed.head();
+        restaurantService.exportRestaurants(restaurant -> put(restaurant.id(), restaurant.name(), restaurant.address()));
+        changeFeed.subscribe(since, this::onChanges);
+    }
+
+    public void onChanges(List<RestaurantChangeDto> changes) {
+        for (RestaurantChangeDto change : changes) {
+            if (change.type() == RestaurantChangedEvent.ChangeType.DELETED) {
+                remove(change.id());
+            } else {
+                put(change.id(), change.name(), change.address());
+            }
+        }
+    }
+
+    public synchronized void put(Long id, String name, String address) {
+        remove(id);
+        Entry entry = Entry.of(name, address);
+        entries.put(id, entry);
+        entry.nameTrigrams().forEach(trigram -> attach(nameTrigrams, trigram, id));
+        entry.addressTrigrams().forEach(trigram -> attach(addressTrigrams, trigram, id));
+        entry.terms().forEach(term -> attach(terms, term, id));
+    }
+
+    public synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        entry.nameTrigrams().forEach(trigram -> detach(nameTrigrams, trigram, id));
+        entry.addressTrigrams().forEach(trigram -> detach(addressTrigrams, trigram, id));
+        entry.terms().forEach(term -> detach(terms, term, id));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public List<Long> search(String query, SearchMode mode, int offset, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Double> scores = switch (mode) {
+            case PREFIX -> prefixScores(normalized);
+            case SUBSTRING -> substringScores(normalized);
+            case FUZZY -> fuzzyScores(normalized);
+        };
+        return top(scores, offset, limit);
+    }
+
+    private Map<Long, Double> prefixScores(String query) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> term : terms.subMap(query, true, query + Character.MAX_VALUE, true).entrySet()) {
+            // the closer the query is to the whole term, the better the match
+            double score = (double) query.length() / term.getKey().length();
+            for (Long id : term.getValue()) {
+                scores.merge(id, score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Double> substringScores(String query) {
+        Set<String> queryTrigrams = innerTrigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            // too short to be looked up by trigram, every term containing it would have to be scanned
+            return prefixScores(query);
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : candidates(nameTrigrams, queryTrigrams)) {
+            Entry entry = entries.get(id);
+            int position = entry == null ? -1 : entry.name().indexOf(query);
+            if (position >= 0) {
+                scores.put(id, 1.0 / (1 + position));
+            }
+        }
+        for (Long id : candidates(addressTrigrams, queryTrigrams)) {
+            Entry entry = entries.get(id);
+            int position = entry == null ? -1 : entry.address().indexOf(query);
+            if (position >= 0) {
+                // matches in the address rank below matches in the name
+                scores.merge(id, 0.5 / (1 + position), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Double> fuzzyScores(String query) {
+        Set<String> queryTrigrams = trigrams(query);
+        Map<Long, Integer> sharedName = sharedTrigrams(nameTrigrams, queryTrigrams);
+        Map<Long, Integer> sharedAddress = sharedTrigrams(addressTrigrams, queryTrigrams);
+
+        Map<Long, Double> scores = new HashMap<>();
+        sharedName.forEach((id, shared) -> {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                scores.put(id, similarity(shared, queryTrigrams.size(), entry.nameTrigrams().size()));
+            }
+        });
+        sharedAddress.forEach((id, shared) -> {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                scores.merge(id, similarity(shared, queryTrigrams.size(), entry.addressTrigrams().size()), Math::max);
+            }
+        });
+        scores.values().removeIf(score -> score < SIMILARITY_THRESHOLD);
+        return scores;
+    }
+
+    private static Set<Long> candidates(Map<String, Set<Long>> postings, Set<String> queryTrigrams) {
+        List<Set<Long>> lists = new ArrayList<>(queryTrigrams.size());
+        for (String trigram : queryTrigrams) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new LinkedHashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+        return candidates;
+    }
+
+    private static Map<Long, Integer> sharedTrigrams(Map<String, Set<Long>> postings, Set<String> queryTrigrams) {
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (Long id : postings.getOrDefault(trigram, Set.of())) {
+                shared.merge(id, 1, Integer::sum);
+            }
+        }
+        return shared;
+    }
+
+    private static double similarity(int shared, int querySize, int fieldSize) {
+        return (double) shared / (querySize + fieldSize - shared);
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, int offset, int limit) {
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        // sized by the matches rather than by the requested page, which the client controls
+        long size = Math.min((long) offset + limit, scores.size());
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+        scores.forEach((id, score) -> {
+            best.add(new Hit(id, score));
+            if (best.size() > size) {
+                best.poll();
+            }
+        });
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .skip(offset)
+                .map(Hit::id)
+                .toList();
+    }
+
+    private static void attach(Map<String, Set<Long>> postings, String key, Long id) {
+        postings.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void detach(Map<String, Set<Long>> postings, String key, Long id) {
+        postings.computeIfPresent(key, (ignored, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    /**
+     * Trigrams the way {@code pg_trgm} builds them: every word padded with two leading and one
+     * trailing space.
+     */
+    static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (!word.isEmpty()) {
+                String padded = "  " + word + " ";
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    trigrams.add(padded.substring(i, i + 3));
+                }
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Trigrams lying completely inside the words of a query. Unlike padded trigrams they are
+     * present in every text containing the query as a substring.
+     */
+    static Set<String> innerTrigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                trigrams.add(word.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private record Hit(Long id, double score) {
+    }
+
+    private record Entry(String name, String address,
+                         Set<String> nameTrigrams, Set<String> addressTrigrams, Set<String> terms) {
+
+        static Entry of(String name, String address) {
+            String normalizedName = normalize(name);
+            String normalizedAddress = normalize(address);
+
+            Set<String> terms = new LinkedHashSet<>();
+            for (String field : List.of(normalizedName, normalizedAddress)) {
+                if (!field.isEmpty()) {
+                    terms.add(field);
+                    terms.addAll(List.of(field.split(" ")));
+                }
+            }
+            return new Entry(normalizedName, normalizedAddress,
+                    trigrams(normalizedName), trigrams(normalizedAddress), terms);
+        }
+    }
+}
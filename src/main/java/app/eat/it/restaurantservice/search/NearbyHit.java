@@ -0,0 +1,4 @@
+package app.eat.it.restaurantservice.search;
+
+public record NearbyHit(Long id, double distanceKm) {
+}
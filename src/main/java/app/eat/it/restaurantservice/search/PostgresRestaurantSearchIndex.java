@@ -0,0 +1,46 @@
+package app.eat.it.restaurantservice.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Searches with {@code ILIKE} and the {@code pg_trgm} similarity operator, both served by the trigram
+ * GIN indexes on name and address the Postgres migrations create.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "restaurant.search.backend", havingValue = "postgres")
+public class PostgresRestaurantSearchIndex implements RestaurantSearchIndex {
+
+    private static final String LIKE_SQL = "select id from restaurant where name ilike ? or address ilike ? " +
+            "order by name, id limit ? offset ?";
+    private static final String SIMILARITY_SQL = "select id from restaurant where name % ? or address % ? " +
+            "order by greatest(similarity(name, ?), similarity(address, ?)) desc, id limit ? offset ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresRestaurantSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Long> search(String query, SearchMode mode, int offset, int limit) {
+        return switch (mode) {
+            case PREFIX -> like(escapeLike(query) + "%", offset, limit);
+            case SUBSTRING -> like("%" + escapeLike(query) + "%", offset, limit);
+            case FUZZY -> jdbcTemplate.queryForList(SIMILARITY_SQL, Long.class, query, query, query, query, limit, offset);
+        };
+    }
+
+    private List<Long> like(String pattern, int offset, int limit) {
+        return jdbcTemplate.queryForList(LIKE_SQL, Long.class, pattern, pattern, limit, offset);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
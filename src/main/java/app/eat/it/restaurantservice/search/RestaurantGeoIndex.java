@@ -0,0 +1,187 @@
+package app.eat.it.restaurantservice.search;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grid of fixed size latitude/longitude cells holding the ids of the restaurants located in them.
+ * Proximity queries walk the cells in rings around the queried point and stop as soon as no closer
+ * restaurant can be found further out, so only the neighbourhood of the point is ever examined.
+ * Like {@link InMemoryRestaurantSearchIndex}, the grid is built from an export and then follows the
+ * {@link RestaurantChangeFeed} from the sequence read before the export started.
+ */
+@Component
+@Profile("!reactive")
+public class RestaurantGeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private static final Comparator<NearbyHit> BY_DISTANCE = Comparator
+            .comparingDouble(NearbyHit::distanceKm)
+            .thenComparing(NearbyHit::id);
+
+    private final RestaurantService restaurantService;
+    private final RestaurantChangeFeed changeFeed;
+    private final double cellSize;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final Map<Long, Location> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public RestaurantGeoIndex(RestaurantService restaurantService,
+                              RestaurantChangeFeed changeFeed,
+                              @Value("${restaurant.geo.cell-size-degrees:0.05}") double cellSize) {
+        this.restaurantService = restaurantService;
+        this.changeFeed = changeFeed;
+        this.cellSize = cellSize;
+        this.latitudeCells = (int) Math.ceil(180 / cellSize);
+        this.longitudeCells = (int) Math.ceil(360 / cellSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long since = changeFeed.head();
+        restaurantService.exportRestaurants(restaurant -> put(restaurant.id(), restaurant.latitude(), restaurant.longitude()));
+        changeFeed.subscribe(since, this::onChanges);
+    }
+
+    public void onChanges(List<RestaurantChangeDto> changes) {
+        for (RestaurantChangeDto change : changes) {
+            if (change.type() == RestaurantChangedEvent.ChangeType.DELETED) {
+                remove(change.id());
+            } else {
+                put(change.id(), change.latitude(), change.longitude());
+            }
+        }
+    }
+
+    public synchronized void put(Long id, Double latitude, Double longitude) {
+        remove(id);
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        Location location = new Location(latitude, longitude, cellKey(latitudeIndex(latitude), longitudeIndex(longitude)));
+        locations.put(id, location);
+        cells.computeIfAbsent(location.cell(), ignored -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    public synchronized void remove(Long id) {
+        Location location = locations.remove(id);
+        if (location != null) {
+            cells.computeIfPresent(location.cell(), (ignored, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Returns at most {@code limit} restaurants within {@code radiusKm} of the given point, nearest first.
+     */
+    public List<NearbyHit> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        int centerLatitude = latitudeIndex(latitude);
+        int centerLongitude = longitudeIndex(longitude);
+        double cellHeightKm = cellSize * KM_PER_DEGREE;
+        int maxRing = Math.min((longitudeCells - 1) / 2, (int) Math.ceil(radiusKm / minCellWidthKm(latitude, radiusKm)) + 1);
+
+        PriorityQueue<NearbyHit> best = new PriorityQueue<>(BY_DISTANCE.reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringDistanceKm = Math.max(0, ring - 1) * Math.min(cellHeightKm, cellWidthKm(Math.abs(latitude) + ring * cellSize));
+            if (ringDistanceKm > radiusKm || (best.size() == limit && ringDistanceKm > best.peek().distanceKm())) {
+                break;
+            }
+            for (int dLatitude = -ring; dLatitude <= ring; dLatitude++) {
+                int latitudeIndex = centerLatitude + dLatitude;
+                if (latitudeIndex < 0 || latitudeIndex >= latitudeCells) {
+                    continue;
+                }
+                // inner rows of a ring only contribute their two outermost cells
+                int step = Math.abs(dLatitude) == ring ? 1 : Math.max(1, 2 * ring);
+                for (int dLongitude = -ring; dLongitude <= ring; dLongitude += step) {
+                    int longitudeIndex = Math.floorMod(centerLongitude + dLongitude, longitudeCells);
+                    collect(cellKey(latitudeIndex, longitudeIndex), latitude, longitude, radiusKm, limit, best);
+                }
+            }
+        }
+
+        List<NearbyHit> hits = new ArrayList<>(best);
+        hits.sort(BY_DISTANCE);
+        return hits;
+    }
+
+    private void collect(long cell, double latitude, double longitude, double radiusKm, int limit, PriorityQueue<NearbyHit> best) {
+        Set<Long> ids = cells.get(cell);
+        if (ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            Location location = locations.get(id);
+            if (location == null) {
+                continue;
+            }
+            double distanceKm = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+            if (distanceKm <= radiusKm) {
+                best.add(new NearbyHit(id, distanceKm));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+    }
+
+    private double minCellWidthKm(double latitude, double radiusKm) {
+        return Math.min(cellSize * KM_PER_DEGREE, cellWidthKm(Math.abs(latitude) + radiusKm / KM_PER_DEGREE));
+    }
+
+    private double cellWidthKm(double absoluteLatitude) {
+        // near the poles cells degenerate, a floor keeps the ring count finite
+        return Math.max(cellSize * KM_PER_DEGREE * Math.cos(Math.toRadians(Math.min(absoluteLatitude, 90))), 0.001);
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min(latitudeCells - 1, (int) Math.floor((latitude + 90) / cellSize));
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSize), longitudeCells);
+    }
+
+    private static long cellKey(int latitudeIndex, int longitudeIndex) {
+        return ((long) latitudeIndex << 32) | (longitudeIndex & 0xffffffffL);
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private record Location(double latitude, double longitude, long cell) {
+    }
+}
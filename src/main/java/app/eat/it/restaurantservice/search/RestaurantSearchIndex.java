@@ -0,0 +1,15 @@
+package app.eat.it.restaurantservice.search;
+
+import java.util.List;
+
+/**
+ * Matches a query against restaurant names and addresses.
+ */
+public interface RestaurantSearchIndex {
+
+    /**
+     * Returns the ids of matching restaurants, best match first.
+     */
+    List<Long> search(String query, SearchMode mode, int offset, int limit);
+
+}
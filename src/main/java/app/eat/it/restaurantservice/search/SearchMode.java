@@ -0,0 +1,17 @@
+package app.eat.it.restaurantservice.search;
+
+import app.eat.it.restaurantservice.exception.InvalidParameterException;
+
+public enum SearchMode {
+
+    PREFIX, SUBSTRING, FUZZY;
+
+    public static SearchMode of(String mode) {
+        for (SearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(mode)) {
+                return searchMode;
+            }
+        }
+        throw new InvalidParameterException("mode", mode);
+    }
+}
@@ -0,0 +1,84 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.exception.IdempotencyKeyReusedException;
+import app.eat.it.restaurantservice.exception.InvalidParameterException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of writes sent with an {@code Idempotency-Key}, so that a retried request is
+ * answered with the original result instead of being applied again. A request arriving while the first
+ * one with its key is still running waits for that one. Keys are bounded in number and expire; only
+ * successful outcomes are kept, so a request that failed can be retried with the same key.
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Execution> executions;
+
+    public IdempotencyKeyStore(@Value("${restaurant.idempotency.maximum-size:100000}") long maximumSize,
+                               @Value("${restaurant.idempotency.ttl:1h}") Duration ttl) {
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs the action once per key and operation and returns its result to every request with that key.
+     * The request identifies the payload; reusing a key with a different one is rejected.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String operation, Object request, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidParameterException("Idempotency-Key", key);
+        }
+        Execution execution = new Execution(request, new CompletableFuture<>());
+        String scopedKey = operation + " " + key;
+        Execution previous = executions.asMap().putIfAbsent(scopedKey, execution);
+        if (previous != null) {
+            if (!Objects.equals(previous.request(), request)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            return (T) join(previous.result());
+        }
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error exception) {
+            // waiting requests fail with it too, later ones run the action again
+            executions.asMap().remove(scopedKey, execution);
+            execution.result().completeExceptionally(exception);
+            throw exception;
+        }
+        execution.result().complete(result);
+        return result;
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private record Execution(Object request, CompletableFuture<Object> result) {}
+
+}
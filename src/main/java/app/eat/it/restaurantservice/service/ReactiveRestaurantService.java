@@ -0,0 +1,159 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.exception.VersionConflictException;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantRow;
+import app.eat.it.restaurantservice.repository.ReactiveRestaurantRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Counterpart of {@link RestaurantService} for the reactive mode: same sorting and paging of the
+ * listing, same 404 and 412 outcomes, on R2DBC instead of JPA. Every write appends its change to the
+ * outbox in its own transaction, like the servlet mode does, so servlet instances sharing the database
+ * evict, reindex and stream it as if it had been written by one of them.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRestaurantService {
+
+    private final ReactiveRestaurantRepository repository;
+    private long nextId;
+    private long lastId = -1;
+
+    public ReactiveRestaurantService(ReactiveRestaurantRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<RestaurantResponseDto> getRestaurants(Integer pageNumber, Integer pageSize, String sortParameter, String sortType) {
+        return repository
+                .findAllBy(RestaurantService.toPageable(pageNumber, pageSize, sortParameter, sortType))
+                .map(ReactiveRestaurantService::toDto);
+    }
+
+    public Mono<RestaurantResponseDto> getRestaurant(Long id) {
+        return repository
+                .findById(id)
+                .map(ReactiveRestaurantService::toDto)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException(Restaurant.class, id)));
+    }
+
+    /**
+     * Returns the restaurants with the given ids in the order of the ids; unknown and repeated ids are skipped.
+     */
+    public Flux<RestaurantResponseDto> getRestaurantsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        return repository
+                .findAllById(distinctIds)
+                .collectMap(RestaurantRow::getId)
+                .flatMapIterable(restaurants -> distinctIds.stream()
+                        .map(restaurants::get)
+                        .filter(Objects::nonNull)
+                        .map(ReactiveRestaurantService::toDto)
+                        .toList());
+    }
+
+    @Transactional
+    public Mono<RestaurantResponseDto> createRestaurant(RestaurantDto restaurantDto) {
+        return nextId()
+                .flatMap(id -> repository.save(toRow(id, restaurantDto)))
+                .flatMap(row -> recordChange(RestaurantChangedEvent.ChangeType.CREATED, row.getId(), restaurantDto).thenReturn(row))
+                .map(ReactiveRestaurantService::toDto);
+    }
+
+    @Transactional
+    public Flux<RestaurantResponseDto> createRestaurants(List<RestaurantDto> restaurantDtos) {
+        return Flux.fromIterable(restaurantDtos)
+                .concatMap(this::createRestaurant);
+    }
+
+    @Transactional
+    public Mono<Void> updateRestaurant(Long id, RestaurantDto restaurantDto) {
+        return repository
+                .updateById(id, restaurantDto.name(), restaurantDto.address(),
+                        restaurantDto.latitude(), restaurantDto.longitude(), now())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new EntityNotFoundException(Restaurant.class, id))
+                        : recordChange(RestaurantChangedEvent.ChangeType.UPDATED, id, restaurantDto));
+    }
+
+    @Transactional
+    public Mono<Void> updateRestaurant(Long id, RestaurantDto restaurantDto, Long expectedVersion) {
+        return repository
+                .updateByIdAndVersion(id, expectedVersion, restaurantDto.name(), restaurantDto.address(),
+                        restaurantDto.latitude(), restaurantDto.longitude(), now())
+                .flatMap(updated -> updated == 0
+                        // only a failed update pays for telling a missing restaurant from a stale version
+                        ? repository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new VersionConflictException(Restaurant.class, id)
+                                : new EntityNotFoundException(Restaurant.class, id)))
+                        : recordChange(RestaurantChangedEvent.ChangeType.UPDATED, id, restaurantDto));
+    }
+
+    @Transactional
+    public Mono<Void> deleteRestaurant(Long id) {
+        return repository
+                .deleteRestaurantById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new EntityNotFoundException(Restaurant.class, id))
+                        : recordChange(RestaurantChangedEvent.ChangeType.DELETED, id, null));
+    }
+
+    private Mono<Void> recordChange(RestaurantChangedEvent.ChangeType type, Long id, RestaurantDto restaurantDto) {
+        return restaurantDto == null
+                ? repository.insertChange(type.name(), id, null, null, null, null, now()).then()
+                : repository.insertChange(type.name(), id, restaurantDto.name(), restaurantDto.address(),
+                        restaurantDto.latitude(), restaurantDto.longitude(), now()).then();
+    }
+
+    /**
+     * Hands out ids from blocks reserved on {@code restaurant_seq} the way Hibernate's pooled-lo optimizer
+     * does, so they never collide with ids assigned by the servlet mode on the same database.
+     */
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (nextId <= lastId) {
+                    return Mono.just(nextId++);
+                }
+            }
+            return repository.nextIdBlock().map(low -> {
+                synchronized (this) {
+                    nextId = low;
+                    lastId = low + Restaurant.ID_ALLOCATION_SIZE - 1;
+                    return nextId++;
+                }
+            });
+        });
+    }
+
+    private static RestaurantRow toRow(Long id, RestaurantDto restaurantDto) {
+        // a null version marks the row as new, Spring Data then inserts it with version 0
+        return new RestaurantRow(id, restaurantDto.name(), restaurantDto.address(),
+                restaurantDto.latitude(), restaurantDto.longitude(), null, now());
+    }
+
+    private static RestaurantResponseDto toDto(RestaurantRow row) {
+        return new RestaurantResponseDto(row.getId(), row.getName(), row.getAddress(),
+                row.getLatitude(), row.getLongitude(), row.getVersion());
+    }
+
+    private static Instant now() {
+        // the precision the column keeps, so the value read back equals the one written
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+}
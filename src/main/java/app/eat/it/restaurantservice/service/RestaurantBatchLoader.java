@@ -0,0 +1,188 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.config.CacheConfig;
+import app.eat.it.restaurantservice.datasource.ReadYourWrites;
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Loads restaurants by id on behalf of concurrent callers. Ids requested within the same short window
+ * are collected into one batch and fetched with a single {@code IN} query; a caller asking for an id
+ * that is already being fetched waits for that fetch instead of issuing its own. The statement of a
+ * batch is counted for every request that joined it.
+ */
+@Component
+@Profile("!reactive")
+public class RestaurantBatchLoader {
+
+    private final RestaurantRepository repository;
+    private final SqlStatementCounter statementCounter;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "restaurant-batch-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Batch> inFlight = new HashMap<>();
+    private Batch currentBatch;
+
+    public RestaurantBatchLoader(RestaurantRepository repository,
+                                 SqlStatementCounter statementCounter,
+                                 @Value("${restaurant.batch-loader.window:2ms}") Duration window,
+                                 @Value("${restaurant.batch-loader.max-batch-size:100}") int maxBatchSize) {
+        this.repository = repository;
+        this.statementCounter = statementCounter;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdown();
+    }
+
+    /**
+     * Cached, except for clients pinned to the primary, which must see their own writes rather than a
+     * cached copy, and for restaurants written within the replica lag window, whose row read from a
+     * replica may predate the write.
+     */
+    @Cacheable(cacheNames = CacheConfig.RESTAURANTS_CACHE, key = "#id",
+            condition = "!T(app.eat.it.restaurantservice.datasource.ReadYourWrites).isPrimaryRequired() and !@recentWrites.isRecent(#id)")
+    public Optional<RestaurantDetailsDto> load(Long id) {
+        if (ReadYourWrites.isPrimaryRequired()) {
+            // batches are fetched on other threads, which would not be routed to the primary
+            return repository.findById(id).map(RestaurantDetailsDto::of);
+        }
+        return Optional.ofNullable(join(enqueue(List.of(id)).get(id)));
+    }
+
+    /**
+     * Returns the restaurants found for the given ids, keyed by id; unknown ids are absent from the map.
+     */
+    public Map<Long, RestaurantDetailsDto> loadAll(Collection<Long> ids) {
+        if (ReadYourWrites.isPrimaryRequired()) {
+            return repository.findAllById(ids)
+                    .stream()
+                    .collect(Collectors.toMap(Restaurant::getId, RestaurantDetailsDto::of));
+        }
+        Map<Long, RestaurantDetailsDto> restaurants = new LinkedHashMap<>();
+        enqueue(ids).forEach((id, future) -> {
+            RestaurantDetailsDto restaurant = join(future);
+            if (restaurant != null) {
+                restaurants.put(id, restaurant);
+            }
+        });
+        return restaurants;
+    }
+
+    private synchronized Map<Long, CompletableFuture<RestaurantDetailsDto>> enqueue(Collection<Long> ids) {
+        SqlStatementCounter.Count requester = statementCounter.current();
+        Map<Long, CompletableFuture<RestaurantDetailsDto>> futures = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Batch batch = inFlight.get(id);
+            if (batch == null) {
+                batch = addToCurrentBatch(id);
+            }
+            if (requester != null) {
+                batch.requesters.add(requester);
+            }
+            futures.put(id, batch.futures.get(id));
+            if (batch == currentBatch && batch.futures.size() >= maxBatchSize) {
+                currentBatch = null;
+                Batch full = batch;
+                fetchExecutor.execute(() -> fetch(full));
+            }
+        }
+        return futures;
+    }
+
+    private Batch addToCurrentBatch(Long id) {
+        if (currentBatch == null) {
+            Batch batch = new Batch();
+            currentBatch = batch;
+            scheduler.schedule(() -> dispatch(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        currentBatch.futures.put(id, new CompletableFuture<>());
+        inFlight.put(id, currentBatch);
+        return currentBatch;
+    }
+
+    private void dispatch(Batch batch) {
+        synchronized (this) {
+            if (currentBatch != batch) {
+                // already handed over once it filled up
+                return;
+            }
+            currentBatch = null;
+        }
+        fetchExecutor.execute(() -> fetch(batch));
+    }
+
+    private void fetch(Batch batch) {
+        Map<Long, RestaurantDetailsDto> restaurants;
+        try {
+            restaurants = statementCounter.countFor(batch.requesters, () -> repository.findAllById(batch.futures.keySet()))
+                    .stream()
+                    .collect(Collectors.toMap(Restaurant::getId, RestaurantDetailsDto::of));
+        } catch (RuntimeException | Error exception) {
+            // every caller waiting on the batch fails with it, later ones fetch again
+            release(batch);
+            batch.futures.values().forEach(future -> future.completeExceptionally(exception));
+            return;
+        }
+        release(batch);
+        batch.futures.forEach((id, future) -> future.complete(restaurants.get(id)));
+    }
+
+    private synchronized void release(Batch batch) {
+        batch.futures.keySet().forEach(inFlight::remove);
+    }
+
+    private static RestaurantDetailsDto join(CompletableFuture<RestaurantDetailsDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    private static class Batch {
+
+        private final Map<Long, CompletableFuture<RestaurantDetailsDto>> futures = new HashMap<>();
+        private final Set<SqlStatementCounter.Count> requesters = ConcurrentHashMap.newKeySet();
+    }
+
+}
@@ -0,0 +1,60 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.config.CacheConfig;
+import app.eat.it.restaurantservice.datasource.RecentWrites;
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts exactly the restaurants a write touched, single or batch, including imports. Created ids
+ * can only hold a cached miss, which is dropped as well.
+ * <p>
+ * Writes of this instance are evicted as they commit. Writes of other instances, servlet or reactive,
+ * arrive through the {@link RestaurantChangeFeed} within a poll interval, and are treated as recent
+ * writes of this instance so a lagging replica cannot bring them back into the cache.
+ */
+@Component
+@Profile("!reactive")
+public class RestaurantCacheEvictor {
+
+    private final Cache cache;
+    private final RestaurantChangeFeed changeFeed;
+    private final RecentWrites recentWrites;
+
+    public RestaurantCacheEvictor(CacheManager cacheManager, RestaurantChangeFeed changeFeed, RecentWrites recentWrites) {
+        this.cache = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        this.changeFeed = changeFeed;
+        this.recentWrites = recentWrites;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void followChangeFeed() {
+        changeFeed.subscribe(changeFeed.head(), this::onChanges);
+    }
+
+    /**
+     * Runs inside the writing transaction, where the transaction-aware cache defers the eviction until
+     * the write is committed.
+     */
+    @EventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        cache.evict(event.id());
+    }
+
+    public void onChanges(List<RestaurantChangeDto> changes) {
+        for (RestaurantChangeDto change : changes) {
+            recentWrites.record(change.id());
+            cache.evict(change.id());
+        }
+    }
+
+}
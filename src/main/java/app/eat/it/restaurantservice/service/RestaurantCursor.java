@@ -0,0 +1,63 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.exception.InvalidCursorException;
+import app.eat.it.restaurantservice.model.Restaurant;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position after the last restaurant of a keyset page: the sort key of that restaurant plus its id,
+ * together with the sort it was produced for. Clients only ever see it as an opaque token.
+ */
+public record RestaurantCursor(String sortProperty, Sort.Direction direction, Long id, String key) {
+
+    static final String ID = "id";
+
+    private static final String SEPARATOR = "|";
+
+    public static RestaurantCursor after(Restaurant restaurant, String sortProperty, Sort.Direction direction) {
+        String key = switch (sortProperty) {
+            case "name" -> restaurant.getName();
+            case "address" -> restaurant.getAddress();
+            default -> null;
+        };
+        return new RestaurantCursor(sortProperty, direction, restaurant.getId(), key);
+    }
+
+    public static RestaurantCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new InvalidCursorException(token);
+            }
+            String key = ID.equals(parts[0]) ? null : parts[3];
+            return new RestaurantCursor(parts[0], Sort.Direction.fromString(parts[1]), Long.parseLong(parts[2]), key);
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public String encode() {
+        String raw = sortProperty + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + (key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean matches(String sortProperty, Sort.Direction direction) {
+        return this.sortProperty.equals(sortProperty) && this.direction == direction;
+    }
+
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!ID.equals(sortProperty)) {
+            keys.put(sortProperty, key);
+        }
+        keys.put(ID, id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,135 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.dto.ImportReportDto;
+import app.eat.it.restaurantservice.dto.RejectedLineDto;
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.format.CsvRestaurantReader;
+import app.eat.it.restaurantservice.format.DataFormat;
+import app.eat.it.restaurantservice.format.ImportRecord;
+import app.eat.it.restaurantservice.format.NdjsonRestaurantReader;
+import app.eat.it.restaurantservice.format.RestaurantReader;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantBulkLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!reactive")
+@Timed(value = "restaurant.service", histogram = true)
+public class RestaurantImportService {
+
+    private final RestaurantBulkLoader bulkLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+
+    public RestaurantImportService(RestaurantBulkLoader bulkLoader,
+                                   TransactionTemplate transactionTemplate,
+                                   Validator validator,
+                                   ObjectMapper objectMapper,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${restaurant.import.chunk-size:5000}") int chunkSize,
+                                   @Value("${restaurant.import.max-reported-rejections:100}") int maxReportedRejections) {
+        this.bulkLoader = bulkLoader;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Reads the input record by record and loads valid restaurants in chunks, each chunk in its own
+     * transaction, so memory use is bounded by the chunk size rather than the size of the input.
+     */
+    public ImportReportDto importRestaurants(DataFormat format, InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        List<RejectedLineDto> rejections = new ArrayList<>();
+        List<RestaurantDto> chunk = new ArrayList<>(chunkSize);
+
+        try (RestaurantReader reader = createReader(format, inputStream)) {
+            ImportRecord record;
+            while ((record = reader.read()) != null) {
+                String error = record.isValid() ? validate(record.restaurant()) : record.error();
+                if (error != null) {
+                    rejected++;
+                    if (rejections.size() < maxReportedRejections) {
+                        rejections.add(new RejectedLineDto(record.line(), error));
+                    }
+                    continue;
+                }
+                chunk.add(record.restaurant());
+                if (chunk.size() == chunkSize) {
+                    imported += load(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += load(chunk);
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        double restaurantsPerSecond = durationMillis == 0 ? imported : imported * 1000.0 / durationMillis;
+        return new ImportReportDto(imported, rejected, rejections, durationMillis, restaurantsPerSecond);
+    }
+
+    private int load(List<RestaurantDto> chunk) {
+        Integer loaded = transactionTemplate.execute(status -> {
+            List<Long> ids = bulkLoader.allocateIds(chunk.size());
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            List<Restaurant> restaurants = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                RestaurantDto restaurantDto = chunk.get(i);
+                restaurants.add(new Restaurant(ids.get(i), restaurantDto.name(), restaurantDto.address(),
+                        restaurantDto.latitude(), restaurantDto.longitude(), 0L, now));
+            }
+            bulkLoader.load(restaurants);
+            restaurants.forEach(restaurant -> eventPublisher.publishEvent(RestaurantChangedEvent.created(restaurant)));
+            return restaurants.size();
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    private String validate(RestaurantDto restaurantDto) {
+        Set<ConstraintViolation<RestaurantDto>> violations = validator.validate(restaurantDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private RestaurantReader createReader(DataFormat format, InputStream inputStream) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonRestaurantReader(objectMapper, inputStream);
+            case CSV -> new CsvRestaurantReader(inputStream);
+        };
+    }
+}
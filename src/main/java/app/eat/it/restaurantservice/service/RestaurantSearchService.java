@@ -0,0 +1,69 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.dto.NearbyRestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.exception.InvalidParameterException;
+import app.eat.it.restaurantservice.search.NearbyHit;
+import app.eat.it.restaurantservice.search.RestaurantGeoIndex;
+import app.eat.it.restaurantservice.search.RestaurantSearchIndex;
+import app.eat.it.restaurantservice.search.SearchMode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!reactive")
+@Timed(value = "restaurant.service", histogram = true)
+public class RestaurantSearchService {
+
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantGeoIndex geoIndex;
+    private final RestaurantService restaurantService;
+    private final double maxRadiusKm;
+
+    public RestaurantSearchService(RestaurantSearchIndex searchIndex,
+                                   RestaurantGeoIndex geoIndex,
+                                   RestaurantService restaurantService,
+                                   @Value("${restaurant.geo.max-radius-km:100}") double maxRadiusKm) {
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.restaurantService = restaurantService;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    public List<RestaurantResponseDto> search(String query, SearchMode mode, Integer pageNumber, Integer pageSize) {
+        long offset = (long) (pageNumber - 1) * pageSize;
+        if (offset + pageSize > Integer.MAX_VALUE) {
+            throw new InvalidParameterException("page", String.valueOf(pageNumber));
+        }
+        List<Long> ids = searchIndex.search(query, mode, (int) offset, pageSize);
+        return restaurantService.getRestaurantResponses(ids);
+    }
+
+    /**
+     * Returns the restaurants nearest to the given point, limited to the radius when one is given and
+     * to the configured maximum radius otherwise.
+     */
+    public List<NearbyRestaurantDto> findNearby(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        double radius = radiusKm == null ? maxRadiusKm : Math.min(radiusKm, maxRadiusKm);
+        List<NearbyHit> hits = geoIndex.nearest(latitude, longitude, radius, limit);
+        Map<Long, RestaurantResponseDto> restaurants = restaurantService
+                .getRestaurantResponses(hits.stream().map(NearbyHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(RestaurantResponseDto::id, Function.identity()));
+        return hits.stream()
+                .filter(hit -> restaurants.containsKey(hit.id()))
+                .map(hit -> {
+                    RestaurantResponseDto restaurant = restaurants.get(hit.id());
+                    return new NearbyRestaurantDto(restaurant.id(), restaurant.name(), restaurant.address(),
+                            restaurant.latitude(), restaurant.longitude(), hit.distanceKm());
+                })
+                .toList();
+    }
+}
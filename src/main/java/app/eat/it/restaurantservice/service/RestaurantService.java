@@ -1,71 +1,251 @@
 package app.eat.it.restaurantservice.service;
 
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
 import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
 import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.exception.InvalidCursorException;
+import app.eat.it.restaurantservice.exception.VersionConflictException;
 import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantField;
 import app.eat.it.restaurantservice.repository.RestaurantRepository;
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.micrometer.common.util.StringUtils.isNotBlank;
 
 @Service
+@Profile("!reactive")
+@Timed(value = "restaurant.service", histogram = true)
 public class RestaurantService {
 
     private final RestaurantRepository repository;
-    private final List<String> allowedSortParameters = List.of("name", "address");
+    private final RestaurantBatchLoader batchLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final List<String> ALLOWED_SORT_PARAMETERS = List.of("name", "address");
 
-    public RestaurantService(RestaurantRepository repository) {
+    public RestaurantService(RestaurantRepository repository,
+                             RestaurantBatchLoader batchLoader,
+                             ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.batchLoader = batchLoader;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<Restaurant> getRestaurants(Integer pageNumber, Integer pageSize, String sortParameter, String sortType) {
-        pageNumber--;
-        Pageable pageable;
-        if (validateSortParameter(sortParameter)) {
-            Sort sort;
-            if ("asc".equalsIgnoreCase(sortType)) {
-                sort = Sort.by(sortParameter).ascending();
-            } else {
-                sort = Sort.by(sortParameter).descending();
+    @Transactional(readOnly = true)
+    public List<RestaurantResponseDto> getRestaurants(Integer pageNumber, Integer pageSize, String sortParameter, String sortType) {
+        return repository.findAllProjectedBy(toPageable(pageNumber, pageSize, sortParameter, sortType));
+    }
+
+    /**
+     * Same page as {@link #getRestaurants}, reading and returning only the given fields.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRestaurantFields(Integer pageNumber, Integer pageSize, String sortParameter, String sortType,
+                                                         Set<RestaurantField> fields) {
+        return repository.findAllFields(fields, toPageable(pageNumber, pageSize, sortParameter, sortType));
+    }
+
+    @Transactional(readOnly = true)
+    public RestaurantSlice getRestaurantSlice(String cursor, Integer pageSize, String sortParameter, String sortType) {
+        String sortProperty = validateSortParameter(sortParameter) ? sortParameter : RestaurantCursor.ID;
+        Sort.Direction direction = Sort.Direction.DESC;
+        if (RestaurantCursor.ID.equals(sortProperty) || "asc".equalsIgnoreCase(sortType)) {
+            direction = Sort.Direction.ASC;
+        }
+
+        ScrollPosition position = ScrollPosition.keyset();
+        if (isNotBlank(cursor)) {
+            RestaurantCursor restaurantCursor = RestaurantCursor.decode(cursor);
+            if (!restaurantCursor.matches(sortProperty, direction)) {
+                throw new InvalidCursorException(cursor);
             }
-            pageable = PageRequest.of(pageNumber, pageSize, sort);
-        } else {
-            pageable = PageRequest.of(pageNumber, pageSize);
+            position = restaurantCursor.toScrollPosition();
+        }
+
+        Sort sort = RestaurantCursor.ID.equals(sortProperty)
+                ? Sort.by(direction, RestaurantCursor.ID)
+                : Sort.by(direction, sortProperty, RestaurantCursor.ID);
+        Window<Restaurant> window = repository.findAllBy(position, sort, Limit.of(pageSize));
+        List<Restaurant> content = window.getContent();
+
+        String nextCursor = null;
+        if (window.hasNext() && !content.isEmpty()) {
+            Restaurant last = content.get(content.size() - 1);
+            nextCursor = RestaurantCursor.after(last, sortProperty, direction).encode();
+        }
+        return new RestaurantSlice(content, nextCursor);
+    }
+
+    /**
+     * Hands every restaurant to the consumer in id order. Rows are read through a database cursor and
+     * projected straight into DTOs, so nothing accumulates in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void exportRestaurants(Consumer<RestaurantResponseDto> consumer) {
+        try (Stream<RestaurantResponseDto> restaurants = repository.streamAllProjectedBy()) {
+            restaurants.forEach(consumer);
         }
-        Page<Restaurant> restaurantPage = repository.findAll(pageable);
-        return restaurantPage.toList();
     }
 
-    public Restaurant getRestaurant(Long id) {
-        return repository
-                .findById(id)
+    /**
+     * Returns the restaurants with the given ids in the order of the ids; unknown ids are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantResponseDto> getRestaurantResponses(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, RestaurantResponseDto> restaurants = repository.findAllProjectedByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(RestaurantResponseDto::id, Function.identity()));
+        return ids.stream()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Not transactional on purpose: the lookup may wait for a batch fetched on another thread, and
+     * must not hold a connection of its own meanwhile.
+     */
+    public RestaurantDetailsDto getRestaurant(Long id) {
+        return batchLoader
+                .load(id)
                 .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
     }
 
+    /**
+     * Returns the restaurants with the given ids in the order of the ids; unknown and repeated ids are skipped.
+     */
+    public List<RestaurantDetailsDto> getRestaurantsByIds(List<Long> ids) {
+        Map<Long, RestaurantDetailsDto> restaurants = batchLoader.loadAll(ids);
+        return ids.stream()
+                .distinct()
+                .map(restaurants::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Transactional
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return repository.save(restaurant);
+        Restaurant savedRestaurant = repository.save(restaurant);
+        eventPublisher.publishEvent(RestaurantChangedEvent.created(savedRestaurant));
+        return savedRestaurant;
     }
 
+    @Transactional
     public void updateRestaurant(Long id, RestaurantDto restaurantDto) {
-        Restaurant restaurant = getRestaurant(id);
-        restaurant.setName(restaurantDto.name());
-        restaurant.setAddress(restaurantDto.address());
-        repository.save(restaurant);
+        int updated = repository.updateById(id, restaurantDto.name(), restaurantDto.address(),
+                restaurantDto.latitude(), restaurantDto.longitude(), now());
+        if (updated == 0) {
+            throw new EntityNotFoundException(Restaurant.class, id);
+        }
+        eventPublisher.publishEvent(RestaurantChangedEvent.updated(id, restaurantDto));
     }
 
+    @Transactional
+    public void updateRestaurant(Long id, RestaurantDto restaurantDto, Long expectedVersion) {
+        int updated = repository.updateByIdAndVersion(id, expectedVersion, restaurantDto.name(), restaurantDto.address(),
+                restaurantDto.latitude(), restaurantDto.longitude(), now());
+        if (updated == 0) {
+            // only a failed update pays for telling a missing restaurant from a stale version
+            if (!repository.existsById(id)) {
+                throw new EntityNotFoundException(Restaurant.class, id);
+            }
+            throw new VersionConflictException(Restaurant.class, id);
+        }
+        eventPublisher.publishEvent(RestaurantChangedEvent.updated(id, restaurantDto));
+    }
+
+    @Transactional
     public void deleteRestaurant(Long id) {
-        Restaurant restaurant = getRestaurant(id);
-        repository.delete(restaurant);
+        int deleted = repository.deleteRestaurantById(id);
+        if (deleted == 0) {
+            throw new EntityNotFoundException(Restaurant.class, id);
+        }
+        eventPublisher.publishEvent(RestaurantChangedEvent.deleted(id));
+    }
+
+    @Transactional
+    public List<Restaurant> createRestaurants(List<Restaurant> restaurants) {
+        List<Restaurant> savedRestaurants = repository.saveAll(restaurants);
+        savedRestaurants.forEach(restaurant -> eventPublisher.publishEvent(RestaurantChangedEvent.created(restaurant)));
+        return savedRestaurants;
+    }
+
+    @Transactional
+    public List<Restaurant> updateRestaurants(Map<Long, RestaurantDto> restaurantDtos) {
+        List<Restaurant> restaurants = repository.findAllById(restaurantDtos.keySet());
+        for (Restaurant restaurant : restaurants) {
+            RestaurantDto restaurantDto = restaurantDtos.get(restaurant.getId());
+            restaurant.setName(restaurantDto.name());
+            restaurant.setAddress(restaurantDto.address());
+            restaurant.setLatitude(restaurantDto.latitude());
+            restaurant.setLongitude(restaurantDto.longitude());
+            eventPublisher.publishEvent(RestaurantChangedEvent.updated(restaurant));
+        }
+        return restaurants;
+    }
+
+    @Transactional
+    public List<Long> deleteRestaurants(Collection<Long> ids) {
+        List<Long> existingIds = repository.findAllById(ids)
+                .stream()
+                .map(Restaurant::getId)
+                .toList();
+        repository.deleteAllByIdInBatch(existingIds);
+        existingIds.forEach(id -> eventPublisher.publishEvent(RestaurantChangedEvent.deleted(id)));
+        return existingIds;
+    }
+
+    /**
+     * Ties are broken by id in the same direction, which makes pages stable and matches the
+     * {@code (name, id)} and {@code (address, id)} indexes, read forwards or backwards.
+     */
+    static Pageable toPageable(Integer pageNumber, Integer pageSize, String sortParameter, String sortType) {
+        pageNumber--;
+        if (validateSortParameter(sortParameter)) {
+            Sort sort;
+            if ("asc".equalsIgnoreCase(sortType)) {
+                sort = Sort.by(sortParameter, RestaurantCursor.ID).ascending();
+            } else {
+                sort = Sort.by(sortParameter, RestaurantCursor.ID).descending();
+            }
+            return PageRequest.of(pageNumber, pageSize, sort);
+        }
+        return PageRequest.of(pageNumber, pageSize, Sort.by(RestaurantCursor.ID));
+    }
+
+    private static Instant now() {
+        // the precision the column keeps, so the value read back equals the one written
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
-    private boolean validateSortParameter(String sortParameter) {
-        return isNotBlank(sortParameter) && allowedSortParameters.contains(sortParameter);
+    private static boolean validateSortParameter(String sortParameter) {
+        return isNotBlank(sortParameter) && ALLOWED_SORT_PARAMETERS.contains(sortParameter);
     }
 
 }
@@ -0,0 +1,12 @@
+package app.eat.it.restaurantservice.service;
+
+import app.eat.it.restaurantservice.model.Restaurant;
+
+import java.util.List;
+
+public record RestaurantSlice(List<Restaurant> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,19 @@
+-- increments by the allocation size of Restaurant#id, each value being the top of a block of ids
+create sequence restaurant_seq start with 1 increment by 50;
+
+create table restaurant
+(
+    id            bigint not null,
+    name          varchar(255),
+    address       varchar(255),
+    latitude      double precision,
+    longitude     double precision,
+    version       bigint,
+    last_modified timestamp(6) with time zone,
+    constraint restaurant_pkey primary key (id)
+);
+
+-- one index per sort parameter of the listing, with the id breaking ties, so that a page is read
+-- in order from the index instead of sorting the whole table
+create index restaurant_name_id_idx on restaurant (name, id);
+create index restaurant_address_id_idx on restaurant (address, id);
@@ -0,0 +1,15 @@
+create table restaurant_outbox
+(
+    id            bigint generated by default as identity,
+    type          varchar(255),
+    restaurant_id bigint,
+    name          varchar(255),
+    address       varchar(255),
+    latitude      double precision,
+    longitude     double precision,
+    created_at    timestamp(6) with time zone,
+    constraint restaurant_outbox_pkey primary key (id)
+);
+
+-- retention deletes by age
+create index restaurant_outbox_created_at_idx on restaurant_outbox (created_at);
@@ -0,0 +1,5 @@
+-- serve ILIKE and similarity searches of the postgres search backend
+create extension if not exists pg_trgm;
+
+create index restaurant_name_trgm_idx on restaurant using gin (name gin_trgm_ops);
+create index restaurant_address_trgm_idx on restaurant using gin (address gin_trgm_ops);
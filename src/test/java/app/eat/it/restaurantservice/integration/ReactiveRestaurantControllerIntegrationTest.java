@@ -0,0 +1,114 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.config.ApplicationConfig;
+import app.eat.it.restaurantservice.controller.ReactiveRestaurantController;
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.exception.VersionConflictException;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.service.ReactiveRestaurantService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveRestaurantController.class)
+@Import(ApplicationConfig.class)
+@ActiveProfiles("reactive")
+public class ReactiveRestaurantControllerIntegrationTest {
+
+    private final String REQUEST_MAPPING_PREFIX = "/api/v1/restaurants";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveRestaurantService service;
+
+    @Test
+    public void getRestaurants_valid_params_should_return_restaurantList() {
+        var responseDto = new RestaurantResponseDto(1L, "Blue whale", "Paris");
+
+        when(service.getRestaurants(1, 10, "name", "asc")).thenReturn(Flux.just(responseDto));
+
+        webTestClient.get()
+                .uri(REQUEST_MAPPING_PREFIX + "?page=1&size=10&sort=name&sort_type=asc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Blue whale");
+    }
+
+    @Test
+    public void getRestaurants_invalid_params_should_return_status_400() {
+        webTestClient.get()
+                .uri(REQUEST_MAPPING_PREFIX + "?page=0&size=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void getRestaurant_unknown_id_should_return_status_404() {
+        when(service.getRestaurant(1L)).thenReturn(Mono.error(new EntityNotFoundException(Restaurant.class, 1L)));
+
+        webTestClient.get()
+                .uri(REQUEST_MAPPING_PREFIX + "/1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void createRestaurant_valid_data_should_return_status_201() {
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris");
+
+        when(service.createRestaurant(restaurantDto)).thenReturn(Mono.just(new RestaurantResponseDto(1L, "Blue whale", "Paris")));
+
+        webTestClient.post()
+                .uri(REQUEST_MAPPING_PREFIX)
+                .bodyValue(restaurantDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    public void createRestaurant_invalid_data_should_return_status_400() {
+        webTestClient.post()
+                .uri(REQUEST_MAPPING_PREFIX)
+                .bodyValue(new RestaurantDto("", ""))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void updateRestaurant_with_stale_if_match_should_return_status_412() {
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris");
+
+        when(service.updateRestaurant(eq(1L), any(RestaurantDto.class), eq(3L)))
+                .thenReturn(Mono.error(new VersionConflictException(Restaurant.class, 1L)));
+
+        webTestClient.put()
+                .uri(REQUEST_MAPPING_PREFIX + "/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .bodyValue(restaurantDto)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+}
@@ -0,0 +1,113 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.config.CacheConfig;
+import app.eat.it.restaurantservice.datasource.ReadYourWrites;
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against an embedded primary and an embedded replica that never replays any write, i.e. a
+ * replica lagging behind for longer than any test lasts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaLagCacheIntegrationTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "restaurant.datasource.replica-urls=" + ReplicaLagCacheIntegrationTest.REPLICA_URL,
+        "restaurant.datasource.replica-health-check-interval=1h",
+        "restaurant.datasource.read-your-writes-window=1m",
+        "restaurant.batch-loader.window=0ms",
+        "restaurant.feed.poll-interval=1h"
+})
+public class ReplicaLagCacheIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:lag-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:lag-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate primary = jdbcTemplate(PRIMARY_URL);
+    private static final JdbcTemplate replica = jdbcTemplate(REPLICA_URL);
+
+    @Autowired
+    private RestaurantService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache cache;
+
+    @BeforeAll
+    public static void migrate() {
+        for (String url : new String[]{PRIMARY_URL, REPLICA_URL}) {
+            Flyway.configure()
+                    .dataSource(url, "sa", "")
+                    .locations("classpath:db/migration/common")
+                    .load()
+                    .migrate();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        cache = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        cache.clear();
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("delete from restaurant");
+            database.update("insert into restaurant (id, name, address, version, last_modified) values (1, 'Blue whale', 'Paris', 0, ?)",
+                    Timestamp.from(Instant.now()));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    public void read_from_lagging_replica_after_write_should_not_be_cached() {
+        assertEquals("Blue whale", service.getRestaurant(1L).name());
+        assertNotNull(cache.get(1L));
+
+        service.updateRestaurant(1L, new RestaurantDto("Red whale", "Paris"));
+        assertNull(cache.get(1L));
+
+        // the replica still answers with the row from before the write, which must not be kept
+        assertEquals("Blue whale", service.getRestaurant(1L).name());
+        assertNull(cache.get(1L));
+
+        ReadYourWrites.requirePrimary();
+        assertEquals("Red whale", service.getRestaurant(1L).name());
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void client_pinned_to_primary_should_bypass_cached_entry() {
+        assertEquals("Blue whale", service.getRestaurant(1L).name());
+        primary.update("update restaurant set name = 'Red whale' where id = 1");
+
+        ReadYourWrites.requirePrimary();
+
+        assertEquals("Red whale", service.getRestaurant(1L).name());
+        assertEquals("Blue whale", cache.get(1L, RestaurantDetailsDto.class).name());
+    }
+
+    private static JdbcTemplate jdbcTemplate(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
@@ -0,0 +1,126 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.datasource.ReadYourWrites;
+import app.eat.it.restaurantservice.datasource.ReplicaRoutingDataSource;
+import app.eat.it.restaurantservice.datasource.ReplicaSelection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between two embedded databases, each holding a single row naming the database.
+ */
+public class ReplicaRoutingDataSourceIntegrationTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void setUp() {
+        primary = createDatabase(ReplicaRoutingDataSource.PRIMARY);
+        replica = createDatabase("replica-0");
+        DataSource unreliableReplica = new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        };
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", unreliableReplica),
+                ReplicaSelection.ROUND_ROBIN, Duration.ofHours(1));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadYourWrites.clear();
+        routingDataSource.close();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    public void read_only_transaction_should_be_routed_to_replica() {
+        assertEquals("replica-0", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    public void read_write_transaction_and_plain_statement_should_be_routed_to_primary() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, readWrite.execute(status -> currentDatabase()));
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, currentDatabase());
+    }
+
+    @Test
+    public void read_only_transaction_should_be_routed_to_primary_after_own_write() {
+        ReadYourWrites.requirePrimary();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    public void read_only_transaction_should_fall_back_to_primary_when_replica_is_down() {
+        replicaDown.set(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, readOnly.execute(status -> currentDatabase()));
+        assertFalse(routingDataSource.isHealthy("replica-0"));
+    }
+
+    @Test
+    public void health_check_should_take_replica_out_of_and_back_into_rotation() {
+        replicaDown.set(true);
+        routingDataSource.checkReplicas();
+
+        assertFalse(routingDataSource.isHealthy("replica-0"));
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, readOnly.execute(status -> currentDatabase()));
+
+        replicaDown.set(false);
+        routingDataSource.checkReplicas();
+
+        assertTrue(routingDataSource.isHealthy("replica-0"));
+        assertEquals("replica-0", readOnly.execute(status -> currentDatabase()));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select name from database_name", String.class);
+    }
+
+    private static EmbeddedDatabase createDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table database_name (name varchar(32))");
+        jdbcTemplate.update("insert into database_name (name) values (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,88 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantBulkLoader;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class RestaurantBulkLoaderIntegrationTest {
+
+    private static final String URL = "jdbc:h2:mem:bulk-loader;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+
+    private final RestaurantBulkLoader bulkLoader = new RestaurantBulkLoader(jdbcTemplate);
+
+    @BeforeAll
+    public static void migrate() {
+        Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("delete from restaurant");
+    }
+
+    @Test
+    public void allocateIds_should_return_distinct_ids_across_blocks_and_calls() {
+        List<Long> first = bulkLoader.allocateIds(Restaurant.ID_ALLOCATION_SIZE * 2 + 1);
+        List<Long> second = bulkLoader.allocateIds(3);
+
+        assertEquals(Restaurant.ID_ALLOCATION_SIZE * 2 + 1, first.size());
+        assertEquals(3, second.size());
+        Set<Long> ids = new HashSet<>(first);
+        ids.addAll(second);
+        assertEquals(first.size() + second.size(), ids.size());
+    }
+
+    @Test
+    public void load_should_insert_restaurants_with_a_jdbc_batch() {
+        List<Long> ids = bulkLoader.allocateIds(2);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        bulkLoader.load(List.of(
+                new Restaurant(ids.get(0), "Blue whale", "Paris", 48.8566, 2.3522, 0L, now),
+                new Restaurant(ids.get(1), "Red whale", "Nice", null, null, 0L, now)));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("select id, name, latitude from restaurant order by id");
+        assertEquals(2, rows.size());
+        assertEquals("Blue whale", rows.get(0).get("NAME"));
+        assertEquals(48.8566, ((Number) rows.get(0).get("LATITUDE")).doubleValue());
+        assertNull(rows.get(1).get("LATITUDE"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void allocateIds_should_fail_fast_on_unsupported_database() {
+        JdbcTemplate mysql = Mockito.mock(JdbcTemplate.class);
+        when(mysql.execute(any(ConnectionCallback.class))).thenReturn("MySQL");
+
+        RestaurantBulkLoader loader = new RestaurantBulkLoader(mysql);
+
+        InvalidDataAccessApiUsageException exception =
+                assertThrows(InvalidDataAccessApiUsageException.class, () -> loader.allocateIds(1));
+        assertTrue(exception.getMessage().contains("MySQL"));
+    }
+}
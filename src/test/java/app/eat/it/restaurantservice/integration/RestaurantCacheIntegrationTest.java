@@ -0,0 +1,184 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.config.CacheConfig;
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Looks restaurants up through the service against an embedded database and counts the statements
+ * Hibernate prepares, which is how a cache hit is told from a miss.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "restaurant.cache.negative-ttl=200ms",
+        "restaurant.batch-loader.window=0ms",
+        "restaurant.feed.poll-interval=1h"
+})
+public class RestaurantCacheIntegrationTest {
+
+    @Autowired
+    private RestaurantService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantChangeFeed changeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Cache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        cache = cacheManager.getCache(CacheConfig.RESTAURANTS_CACHE);
+        cache.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void getRestaurant_should_query_database_only_on_first_lookup() {
+        Long id = createRestaurant("Blue whale");
+        cache.clear();
+
+        long before = statistics.getPrepareStatementCount();
+        assertEquals("Blue whale", service.getRestaurant(id).name());
+        assertEquals(before + 1, statistics.getPrepareStatementCount());
+
+        assertEquals("Blue whale", service.getRestaurant(id).name());
+        assertEquals(before + 1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void getRestaurant_should_cache_miss_for_negative_ttl_only() throws Exception {
+        long before = statistics.getPrepareStatementCount();
+        assertThrows(EntityNotFoundException.class, () -> service.getRestaurant(Long.MAX_VALUE));
+        assertThrows(EntityNotFoundException.class, () -> service.getRestaurant(Long.MAX_VALUE));
+        assertEquals(before + 1, statistics.getPrepareStatementCount());
+
+        Thread.sleep(400);
+
+        assertThrows(EntityNotFoundException.class, () -> service.getRestaurant(Long.MAX_VALUE));
+        assertEquals(before + 2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void updateRestaurant_should_evict_entry_once_committed() {
+        Long id = createRestaurant("Blue whale");
+        service.getRestaurant(id);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            service.updateRestaurant(id, new RestaurantDto("Red whale", "Paris"));
+            // other transactions still see the committed row, so the cached copy stays valid until then
+            assertNotNull(cache.get(id));
+        });
+
+        assertNull(cache.get(id));
+        assertEquals("Red whale", service.getRestaurant(id).name());
+    }
+
+    @Test
+    public void deleteRestaurant_should_evict_entry() {
+        Long id = createRestaurant("Blue whale");
+        service.getRestaurant(id);
+
+        service.deleteRestaurant(id);
+
+        assertNull(cache.get(id));
+        assertThrows(EntityNotFoundException.class, () -> service.getRestaurant(id));
+    }
+
+    @Test
+    public void updateRestaurants_should_evict_only_updated_entries() {
+        Long updatedId = createRestaurant("Blue whale");
+        Long untouchedId = createRestaurant("Green whale");
+        service.getRestaurant(updatedId);
+        service.getRestaurant(untouchedId);
+
+        service.updateRestaurants(Map.of(updatedId, new RestaurantDto("Red whale", "Paris")));
+
+        assertNull(cache.get(updatedId));
+        assertNotNull(cache.get(untouchedId));
+    }
+
+    @Test
+    public void cache_statistics_should_be_published_as_metrics() {
+        Long id = createRestaurant("Blue whale");
+        service.getRestaurant(id);
+        double hits = cacheGets("hit");
+
+        service.getRestaurant(id);
+
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    public void write_of_another_instance_should_evict_entry_once_read_from_feed() throws Exception {
+        Long id = createRestaurant("Blue whale");
+        service.getRestaurant(id);
+        changeFeed.poll();
+
+        // another instance writes the row and its outbox entry, which this one only learns of from the feed
+        jdbcTemplate.update("update restaurant set name = 'Red whale', version = version + 1 where id = ?", id);
+        jdbcTemplate.update("insert into restaurant_outbox (type, restaurant_id, name, address, created_at) values ('UPDATED', ?, 'Red whale', 'Paris', ?)",
+                id, Timestamp.from(Instant.now()));
+        assertNotNull(cache.get(id));
+
+        changeFeed.poll();
+
+        // delivered on the feed's own threads
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.get(id) != null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(cache.get(id));
+        assertEquals("Red whale", service.getRestaurant(id).name());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.RESTAURANTS_CACHE)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private Long createRestaurant(String name) {
+        return service.createRestaurant(new Restaurant(null, name, "Paris")).getId();
+    }
+}
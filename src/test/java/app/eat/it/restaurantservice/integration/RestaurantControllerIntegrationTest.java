@@ -1,10 +1,24 @@
 package app.eat.it.restaurantservice.integration;
 
+import app.eat.it.restaurantservice.count.RestaurantCounter;
+import app.eat.it.restaurantservice.dto.ImportReportDto;
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
 import app.eat.it.restaurantservice.dto.RestaurantDto;
 import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.feed.RestaurantOutboxWriter;
 import app.eat.it.restaurantservice.mapper.RestaurantMapper;
 import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.model.RestaurantField;
+import app.eat.it.restaurantservice.search.RestaurantGeoIndex;
+import app.eat.it.restaurantservice.format.DataFormat;
+import app.eat.it.restaurantservice.repository.RestaurantBulkLoader;
+import app.eat.it.restaurantservice.service.RestaurantBatchLoader;
+import app.eat.it.restaurantservice.service.RestaurantImportService;
 import app.eat.it.restaurantservice.service.RestaurantService;
+import app.eat.it.restaurantservice.service.RestaurantSlice;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,19 +27,29 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.Instant;
 import java.util.List;
-
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @EnableAutoConfiguration(exclude = DataSourceAutoConfiguration.class)
@@ -41,9 +65,30 @@ public class RestaurantControllerIntegrationTest {
     @MockBean
     private RestaurantService service;
 
+    @MockBean
+    private RestaurantImportService importService;
+
+    @MockBean
+    private RestaurantBulkLoader bulkLoader;
+
+    @MockBean
+    private RestaurantBatchLoader batchLoader;
+
+    @MockBean
+    private RestaurantChangeFeed changeFeed;
+
+    @MockBean
+    private RestaurantOutboxWriter outboxWriter;
+
+    @MockBean
+    private RestaurantCounter counter;
+
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private RestaurantGeoIndex geoIndex;
+
     @BeforeEach
     public void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
@@ -56,11 +101,9 @@ public class RestaurantControllerIntegrationTest {
         String sortParameter = "name";
         String sortType = "ASC";
 
-        Restaurant restaurant = new Restaurant(1L, "Blue whale", "Paris");
         RestaurantResponseDto responseDto = new RestaurantResponseDto(1L, "Blue whale", "Paris");
 
-        when(service.getRestaurants(pageNumber, pageSize, sortParameter, sortType)).thenReturn(List.of(restaurant));
-        when(mapper.toDto(restaurant)).thenReturn(responseDto);
+        when(service.getRestaurants(pageNumber, pageSize, sortParameter, sortType)).thenReturn(List.of(responseDto));
 
         mockMvc.perform(
                 get(REQUEST_MAPPING_PREFIX)
@@ -75,7 +118,64 @@ public class RestaurantControllerIntegrationTest {
 
         verify(service, times(1))
                 .getRestaurants(eq(pageNumber), eq(pageSize), eq(sortParameter), eq(sortType));
-        verify(mapper, times(1)).toDto(eq(restaurant));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    public void getRestaurants_should_return_total_count_header_when_counted() throws Exception {
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris")));
+        when(counter.count()).thenReturn(OptionalLong.of(42));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"));
+    }
+
+    @Test
+    public void getRestaurants_should_not_return_total_count_header_when_not_counted() throws Exception {
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris")));
+        when(counter.count()).thenReturn(OptionalLong.empty());
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    public void getRestaurants_with_fields_should_return_only_selected_fields() throws Exception {
+        var fields = RestaurantField.parse("name,id");
+
+        when(service.getRestaurantFields(1, 10, null, null, fields)).thenReturn(List.of(Map.of("id", 1L, "name", "Blue whale")));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "name,id"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Blue whale"))
+                .andExpect(jsonPath("$[0].address").doesNotExist());
+
+        verify(service, never()).getRestaurants(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getRestaurants_unknown_field_should_return_status_400() throws Exception {
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "id,owner"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void getRestaurants_accepting_cbor_should_return_cbor() throws Exception {
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris")));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).accept(MediaType.parseMediaType("application/cbor")))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
     }
 
     @Test
@@ -95,11 +195,97 @@ public class RestaurantControllerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getRestaurantSlice_should_return_content_and_next_cursor() throws Exception {
+        Integer pageSize = 10;
+        String sortParameter = "name";
+        String sortType = "ASC";
+
+        Restaurant restaurant = new Restaurant(1L, "Blue whale", "Paris");
+        RestaurantResponseDto responseDto = new RestaurantResponseDto(1L, "Blue whale", "Paris");
+
+        when(service.getRestaurantSlice("", pageSize, sortParameter, sortType))
+                .thenReturn(new RestaurantSlice(List.of(restaurant), "next"));
+        when(mapper.toDto(restaurant)).thenReturn(responseDto);
+
+        mockMvc.perform(
+                        get(REQUEST_MAPPING_PREFIX)
+                                .param("cursor", "")
+                                .param("size", String.valueOf(pageSize))
+                                .param("sort", sortParameter)
+                                .param("sort_type", sortType))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(responseDto.id()))
+                .andExpect(jsonPath("$.next_cursor").value("next"))
+                .andExpect(jsonPath("$.has_next").value(true));
+
+        verify(service, never()).getRestaurants(any(), any(), any(), any());
+    }
+
+    @Test
+    public void exportRestaurants_should_stream_ndjson() throws Exception {
+        RestaurantResponseDto responseDto = new RestaurantResponseDto(1L, "Blue whale", "Paris", 48.85, 2.35, 0L);
+
+        doAnswer(invocation -> {
+            Consumer<RestaurantResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(responseDto);
+            consumer.accept(responseDto);
+            return null;
+        }).when(service).exportRestaurants(any());
+
+        MvcResult result = mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/export").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = new ObjectMapper().writeValueAsString(responseDto);
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    public void pollChanges_should_return_next_changes_after_since() throws Exception {
+        RestaurantChangeDto change = new RestaurantChangeDto(8L, RestaurantChangedEvent.ChangeType.DELETED, 1L,
+                null, null, null, null, Instant.parse("2024-03-01T10:15:30Z"));
+
+        when(changeFeed.subscribe(anyLong(), any())).thenAnswer(invocation -> {
+            RestaurantChangeFeed.Listener listener = invocation.getArgument(1);
+            listener.onChanges(List.of(change));
+            return mock(RestaurantChangeFeed.Subscription.class);
+        });
+
+        MvcResult result = mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/changes").param("since", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(8))
+                .andExpect(jsonPath("$[0].type").value("DELETED"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(changeFeed, times(1)).subscribe(eq(7L), any());
+        verify(changeFeed, never()).head();
+    }
+
+    @Test
+    public void exportRestaurants_unknown_format_should_return_status_400() throws Exception {
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/export").param("format", "xml"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
     @Test
     public void getRestaurant_should_return_restaurantResponseDto() throws Exception {
         Long id = 1L;
 
-        Restaurant restaurant = new Restaurant(id, "Blue whale", "Paris");
+        RestaurantDetailsDto restaurant = new RestaurantDetailsDto(id, "Blue whale", "Paris", null, null, 0L, null);
         RestaurantResponseDto responseDto = new RestaurantResponseDto(id, "Blue whale", "Paris");
 
         when(service.getRestaurant(id)).thenReturn(restaurant);
@@ -114,6 +300,166 @@ public class RestaurantControllerIntegrationTest {
         verify(mapper, times(1)).toDto(eq(restaurant));
     }
 
+    @Test
+    public void getRestaurant_should_return_etag_and_last_modified() throws Exception {
+        Long id = 1L;
+        Instant lastModified = Instant.parse("2024-03-01T10:15:30Z");
+
+        RestaurantDetailsDto restaurant = new RestaurantDetailsDto(id, "Blue whale", "Paris", null, null, 3L, lastModified);
+
+        when(service.getRestaurant(id)).thenReturn(restaurant);
+        when(mapper.toDto(restaurant)).thenReturn(new RestaurantResponseDto(id, "Blue whale", "Paris", null, null, 3L));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/" + id))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, lastModified.toEpochMilli()));
+    }
+
+    @Test
+    public void getRestaurant_matching_etag_should_return_status_304() throws Exception {
+        Long id = 1L;
+
+        RestaurantDetailsDto restaurant = new RestaurantDetailsDto(id, "Blue whale", "Paris", null, null, 3L, Instant.parse("2024-03-01T10:15:30Z"));
+
+        when(service.getRestaurant(id)).thenReturn(restaurant);
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, times(1)).getRestaurant(eq(id));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    public void getRestaurant_should_derive_etag_from_returned_restaurant() throws Exception {
+        Long id = 1L;
+
+        RestaurantDetailsDto cached = new RestaurantDetailsDto(id, "Blue whale", "Paris", null, null, 3L, null);
+
+        when(service.getRestaurant(id)).thenReturn(cached);
+        when(mapper.toDto(cached)).thenReturn(new RestaurantResponseDto(id, "Blue whale", "Paris", null, null, 3L));
+
+        // a client holding a newer version than the one served is sent the served one with its own tag
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/" + id).header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    public void getRestaurants_matching_etag_should_return_status_304() throws Exception {
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris", null, null, 0L)));
+
+        String eTag = mockMvc.perform(get(REQUEST_MAPPING_PREFIX))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified());
+
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Red whale", "Paris", null, null, 1L)));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        verify(service, times(3)).getRestaurants(1, 10, null, null);
+    }
+
+    @Test
+    public void getRestaurants_should_tag_page_weakly_and_vary_by_accept() throws Exception {
+        when(service.getRestaurants(1, 10, null, null)).thenReturn(List.of(new RestaurantResponseDto(1L, "Blue whale", "Paris", null, null, 0L)));
+
+        String eTag = mockMvc.perform(get(REQUEST_MAPPING_PREFIX))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertTrue(eTag.startsWith("W/\""));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX)
+                        .accept(MediaType.parseMediaType("application/cbor"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void getRestaurants_should_tag_each_fields_selection_differently() throws Exception {
+        when(service.getRestaurantFields(eq(1), eq(10), isNull(), isNull(), any())).thenReturn(List.of(Map.of("id", 1L)));
+
+        String idOnly = mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "id"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "id,name").header(HttpHeaders.IF_NONE_MATCH, idOnly))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(idOnly)));
+    }
+
+    @Test
+    public void getRestaurants_with_fields_should_change_etag_when_selected_values_change() throws Exception {
+        var fields = RestaurantField.parse("id,name");
+
+        when(service.getRestaurantFields(1, 10, null, null, fields)).thenReturn(List.of(Map.of("id", 1L, "name", "Blue whale")));
+
+        String eTag = mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        when(service.getRestaurantFields(1, 10, null, null, fields)).thenReturn(List.of(Map.of("id", 1L, "name", "Red whale")));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("fields", "id,name").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Red whale"));
+    }
+
+    @Test
+    public void getRestaurants_with_ids_and_cursor_should_page_by_cursor() throws Exception {
+        when(service.getRestaurantSlice("", 10, null, null)).thenReturn(new RestaurantSlice(List.of(), null));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("ids", "2,1").param("cursor", ""))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.has_next").value(false));
+
+        verify(service, never()).getRestaurantsByIds(any());
+    }
+
+    @Test
+    public void getRestaurantsByIds_should_return_restaurants_in_order_of_ids() throws Exception {
+        RestaurantDetailsDto first = new RestaurantDetailsDto(1L, "Blue whale", "Paris", null, null, 0L, null);
+        RestaurantDetailsDto second = new RestaurantDetailsDto(2L, "Red whale", "Nice", null, null, 0L, null);
+
+        when(service.getRestaurantsByIds(List.of(2L, 1L))).thenReturn(List.of(second, first));
+        when(mapper.toDto(first)).thenReturn(new RestaurantResponseDto(1L, "Blue whale", "Paris"));
+        when(mapper.toDto(second)).thenReturn(new RestaurantResponseDto(2L, "Red whale", "Nice"));
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX).param("ids", "2,1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].id").value(1));
+
+        verify(service, times(1)).getRestaurantsByIds(eq(List.of(2L, 1L)));
+    }
+
     @Test
     public void createRestaurant_valid_data_should_return_restaurantResponseDto() throws Exception {
         Long id = 1L;
@@ -138,6 +484,58 @@ public class RestaurantControllerIntegrationTest {
         verify(mapper, times(1)).toDto(eq(restaurant));
     }
 
+    @Test
+    public void createRestaurant_retried_with_idempotency_key_should_create_once() throws Exception {
+        Long id = 1L;
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        Restaurant restaurant = new Restaurant(id, "Blue whale", "Paris");
+        RestaurantResponseDto responseDto = new RestaurantResponseDto(id, "Blue whale", "Paris");
+        RestaurantDto dto = new RestaurantDto("Blue whale", "Paris");
+
+        when(service.createRestaurant(restaurant)).thenReturn(restaurant);
+        when(mapper.toModel(dto)).thenReturn(restaurant);
+        when(mapper.toDto(restaurant)).thenReturn(responseDto);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post(REQUEST_MAPPING_PREFIX)
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(new ObjectMapper().writeValueAsString(dto)))
+                    .andDo(print())
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(id));
+        }
+
+        verify(service, times(1)).createRestaurant(eq(restaurant));
+    }
+
+    @Test
+    public void createRestaurant_idempotency_key_reused_for_other_data_should_return_status_422() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        Restaurant restaurant = new Restaurant(1L, "Blue whale", "Paris");
+        RestaurantDto dto = new RestaurantDto("Blue whale", "Paris");
+
+        when(service.createRestaurant(restaurant)).thenReturn(restaurant);
+        when(mapper.toModel(dto)).thenReturn(restaurant);
+        when(mapper.toDto(restaurant)).thenReturn(new RestaurantResponseDto(1L, "Blue whale", "Paris"));
+
+        mockMvc.perform(post(REQUEST_MAPPING_PREFIX)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(REQUEST_MAPPING_PREFIX)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(new RestaurantDto("Red whale", "Nice"))))
+                .andDo(print())
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(service, times(1)).createRestaurant(any(Restaurant.class));
+    }
+
     @Test
     public void createRestaurant_invalid_data_should_return_status_400() throws Exception {
         RestaurantDto dto = new RestaurantDto("", "");
@@ -166,6 +564,22 @@ public class RestaurantControllerIntegrationTest {
         verify(service, times(1)).updateRestaurant(eq(id), eq(dto));
     }
 
+    @Test
+    public void updateRestaurant_with_if_match_should_pass_expected_version() throws Exception {
+        Long id = 1L;
+
+        RestaurantDto dto = new RestaurantDto("Blue whale", "Paris");
+
+        mockMvc.perform(put(REQUEST_MAPPING_PREFIX + "/" + id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(dto)))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        verify(service, times(1)).updateRestaurant(eq(id), eq(dto), eq(3L));
+    }
+
     @Test
     public void updateRestaurant_invalid_data_should_return_status_400() throws Exception {
         RestaurantDto dto = new RestaurantDto("", "");
@@ -190,4 +604,161 @@ public class RestaurantControllerIntegrationTest {
         verify(service, times(1)).deleteRestaurant(eq(id));
     }
 
+    @Test
+    public void createRestaurants_valid_data_should_return_item_results() throws Exception {
+        Restaurant restaurant = new Restaurant(1L, "Blue whale", "Paris");
+        RestaurantResponseDto responseDto = new RestaurantResponseDto(1L, "Blue whale", "Paris");
+        RestaurantDto dto = new RestaurantDto("Blue whale", "Paris");
+
+        when(mapper.toModel(dto)).thenReturn(restaurant);
+        when(service.createRestaurants(List.of(restaurant))).thenReturn(List.of(restaurant));
+        when(mapper.toDto(restaurant)).thenReturn(responseDto);
+
+        mockMvc.perform(post(REQUEST_MAPPING_PREFIX + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(dto))))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.[0].id").value(1L))
+                .andExpect(jsonPath("$.[0].status").value(201));
+
+        verify(service, times(1)).createRestaurants(eq(List.of(restaurant)));
+    }
+
+    @Test
+    public void createRestaurants_invalid_data_should_return_status_400() throws Exception {
+        RestaurantDto dto = new RestaurantDto("", "");
+
+        mockMvc.perform(post(REQUEST_MAPPING_PREFIX + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(dto))))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void deleteRestaurants_should_report_missing_ids() throws Exception {
+        when(service.deleteRestaurants(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        mockMvc.perform(delete(REQUEST_MAPPING_PREFIX + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(1L, 2L))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].status").value(200))
+                .andExpect(jsonPath("$.[1].status").value(404));
+    }
+
+    @Test
+    public void importRestaurants_should_return_import_report() throws Exception {
+        ImportReportDto report = new ImportReportDto(1, 0, List.of(), 5, 200.0);
+
+        when(importService.importRestaurants(eq(DataFormat.CSV), any())).thenReturn(report);
+
+        mockMvc.perform(post(REQUEST_MAPPING_PREFIX + "/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("name,address\nBlue whale,Paris\n"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        verify(importService, times(1)).importRestaurants(eq(DataFormat.CSV), any());
+    }
+
+    @Test
+    public void searchRestaurants_oversized_page_should_return_status_400() throws Exception {
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/search")
+                        .param("q", "whale")
+                        .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/search")
+                        .param("q", "whale")
+                        .param("page", String.valueOf(Integer.MAX_VALUE))
+                        .param("size", "100"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void searchRestaurants_invalid_mode_should_return_status_400() throws Exception {
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/search")
+                        .param("q", "whale")
+                        .param("mode", "regex"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+
+    @Test
+    public void getNearbyRestaurants_should_return_restaurants_nearest_first() throws Exception {
+        geoIndex.put(101L, 48.8566, 2.3522);
+        geoIndex.put(102L, 48.8606, 2.3376);
+        try {
+            when(service.getRestaurantResponses(any())).thenReturn(List.of(
+                    new RestaurantResponseDto(101L, "Blue whale", "Paris", 48.8566, 2.3522, 0L),
+                    new RestaurantResponseDto(102L, "Red whale", "Paris", 48.8606, 2.3376, 0L)));
+
+            mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/nearby")
+                            .param("lat", "48.8606")
+                            .param("lon", "2.3376"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$.[0].id").value(102))
+                    .andExpect(jsonPath("$.[1].id").value(101))
+                    .andExpect(jsonPath("$.[1].distance_km").isNumber());
+        } finally {
+            geoIndex.remove(101L);
+            geoIndex.remove(102L);
+        }
+    }
+
+    @Test
+    public void getNearbyRestaurants_should_cap_radius() throws Exception {
+        // Lyon is about 390 km from Paris, beyond restaurant.geo.max-radius-km
+        geoIndex.put(103L, 45.7640, 4.8357);
+        try {
+            mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/nearby")
+                            .param("lat", "48.8566")
+                            .param("lon", "2.3522")
+                            .param("radius_km", "1000"))
+                    .andDo(print())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(0));
+        } finally {
+            geoIndex.remove(103L);
+        }
+    }
+
+    @Test
+    public void getNearbyRestaurants_invalid_params_should_return_status_400() throws Exception {
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/nearby")
+                        .param("lat", "91")
+                        .param("lon", "2.3522"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/nearby")
+                        .param("lat", "48.8566")
+                        .param("lon", "2.3522")
+                        .param("radius_km", "-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(REQUEST_MAPPING_PREFIX + "/nearby")
+                        .param("lat", "48.8566")
+                        .param("lon", "2.3522")
+                        .param("limit", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
 }
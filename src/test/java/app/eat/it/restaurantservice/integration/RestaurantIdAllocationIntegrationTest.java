@@ -0,0 +1,51 @@
+package app.eat.it.restaurantservice.integration;
+
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantBulkLoader;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Takes ids from a fresh {@code restaurant_seq} through Hibernate and through the bulk loader in turn,
+ * the way a running import and single creates share the sequence.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:id-allocation;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "restaurant.feed.poll-interval=1h"
+})
+public class RestaurantIdAllocationIntegrationTest {
+
+    @Autowired
+    private RestaurantRepository repository;
+
+    @Autowired
+    private RestaurantBulkLoader bulkLoader;
+
+    @Test
+    public void saved_and_bulk_allocated_ids_should_never_collide() {
+        Set<Long> ids = new HashSet<>();
+
+        for (int round = 0; round < 3; round++) {
+            // enough saves to run Hibernate past the end of its block while bulk blocks are reserved in between
+            for (int i = 0; i < Restaurant.ID_ALLOCATION_SIZE / 2 + 1; i++) {
+                Long id = repository.save(new Restaurant(null, "Blue whale", "Paris")).getId();
+                assertTrue(ids.add(id), "id " + id + " handed out twice");
+            }
+            for (Long id : bulkLoader.allocateIds(Restaurant.ID_ALLOCATION_SIZE + 1)) {
+                assertTrue(ids.add(id), "id " + id + " handed out twice");
+            }
+        }
+
+        // the sequence really was fresh, with Hibernate taking the first block
+        assertTrue(ids.contains(1L));
+    }
+}
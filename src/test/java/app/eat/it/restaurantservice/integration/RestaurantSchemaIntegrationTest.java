@@ -0,0 +1,70 @@
+package app.eat.it.restaurantservice.integration;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations against Postgres, lets Hibernate validate the entities against the resulting
+ * schema, and checks on a table of {@value #RESTAURANTS} restaurants that every sort order of the
+ * listing is read from an index rather than sorted.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RestaurantSchemaIntegrationTest {
+
+    private static final int RESTAURANTS = 200_000;
+
+    @Container
+    @ServiceConnection
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    public void setUp() {
+        jdbcTemplate.update("insert into restaurant (id, name, address, latitude, longitude, version, last_modified) " +
+                "select g, 'Restaurant ' || md5(g::text), g || ' rue ' || md5((g * 7)::text), 48.85, 2.35, 0, now() " +
+                "from generate_series(1, ?) g", RESTAURANTS);
+        jdbcTemplate.execute("analyze restaurant");
+    }
+
+    /**
+     * The page and version queries of the listing, as Hibernate renders them, deep enough into the
+     * listing that a sequential scan would only pay off if the rows had to be sorted anyway.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r.name asc, r.id asc",
+            "r.name desc, r.id desc",
+            "r.address asc, r.id asc",
+            "r.address desc, r.id desc",
+            "r.id asc"
+    })
+    public void listing_should_read_pages_from_index(String orderBy) {
+        String pageSql = "select r.id, r.name, r.address, r.latitude, r.longitude, r.version from restaurant r " +
+                "order by " + orderBy + " offset 990 rows fetch first 10 rows only";
+        String versionsSql = "select r.id, r.version, r.last_modified from restaurant r " +
+                "order by " + orderBy + " offset 990 rows fetch first 10 rows only";
+
+        assertThat(explain(pageSql)).contains("Index Scan").doesNotContain("Sort");
+        assertThat(explain(versionsSql)).contains("Index Scan").doesNotContain("Sort");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+
+}
@@ -0,0 +1,134 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.filter.AdaptiveConcurrencyLimit;
+import app.eat.it.restaurantservice.filter.AdaptiveConcurrencyLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private static final String PATH = "/api/v1/restaurants";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimit readLimit = new AdaptiveConcurrencyLimit(2, 1, 2, 0, Duration.ZERO);
+    private final AdaptiveConcurrencyLimit writeLimit = new AdaptiveConcurrencyLimit(1, 1, 1, 0, Duration.ZERO);
+    private final AdaptiveConcurrencyLimitFilter filter =
+            new AdaptiveConcurrencyLimitFilter(readLimit, writeLimit, List.of(PATH + "/changes"), meterRegistry);
+
+    @Test
+    void doFilter_should_reject_writes_over_write_budget_but_still_accept_reads() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> slowWrite = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("POST", PATH), new MockHttpServletResponse(), (request, response) -> {
+                    entered.countDown();
+                    await(release);
+                });
+                return null;
+            });
+            entered.await();
+
+            var writeResponse = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("PUT", PATH + "/1"), writeResponse, new MockFilterChain());
+            var readResponse = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", PATH + "/1"), readResponse, new MockFilterChain());
+
+            assertEquals(503, writeResponse.getStatus());
+            assertEquals("1", writeResponse.getHeader(HttpHeaders.RETRY_AFTER));
+            assertEquals(200, readResponse.getStatus());
+
+            release.countDown();
+            slowWrite.get();
+        }
+        assertEquals(0, writeLimit.getInFlight());
+        assertEquals(1, meterRegistry.get("restaurant.limiter.requests")
+                .tag("budget", "write").tag("outcome", "rejected").counter().count());
+        assertEquals(1, meterRegistry.get("restaurant.limiter.requests")
+                .tag("budget", "read").tag("outcome", "accepted").counter().count());
+    }
+
+    @Test
+    void doFilter_should_not_limit_excluded_paths() throws Exception {
+        var chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", PATH + "/changes"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, meterRegistry.get("restaurant.limiter.requests")
+                .tag("budget", "read").tag("outcome", "accepted").counter().count());
+    }
+
+    @Test
+    void limit_should_shrink_when_latency_rises() {
+        var limit = new AdaptiveConcurrencyLimit(20, 2, 100, 0, Duration.ZERO);
+        saturate(limit, Duration.ofMillis(1), 200);
+        int settled = limit.getLimit();
+
+        saturate(limit, Duration.ofMillis(20), 1);
+
+        assertTrue(limit.getLimit() < settled);
+    }
+
+    @Test
+    void limit_should_back_off_when_request_fails() {
+        var limit = new AdaptiveConcurrencyLimit(20, 2, 100, 0, Duration.ZERO);
+
+        limit.acquire();
+        limit.release(Duration.ofMillis(1).toNanos(), true);
+
+        assertEquals(18, limit.getLimit());
+    }
+
+    @Test
+    void acquire_should_wait_for_slot_within_queue_wait() throws Exception {
+        var limit = new AdaptiveConcurrencyLimit(1, 1, 1, 1, Duration.ofSeconds(5));
+        assertEquals(AdaptiveConcurrencyLimit.Outcome.ACCEPTED, limit.acquire());
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<AdaptiveConcurrencyLimit.Outcome> queued = executor.submit(limit::acquire);
+            while (limit.getQueued() == 0) {
+                Thread.onSpinWait();
+            }
+            assertEquals(AdaptiveConcurrencyLimit.Outcome.REJECTED, limit.acquire());
+
+            limit.release(Duration.ofMillis(1).toNanos(), false);
+
+            assertEquals(AdaptiveConcurrencyLimit.Outcome.QUEUED, queued.get());
+        }
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimit limit, Duration latency, int samples) {
+        for (int sample = 0; sample < samples; sample++) {
+            int inFlight = limit.getLimit();
+            for (int i = 0; i < inFlight; i++) {
+                limit.acquire();
+            }
+            for (int i = 0; i < inFlight; i++) {
+                limit.release(latency.toNanos(), false);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
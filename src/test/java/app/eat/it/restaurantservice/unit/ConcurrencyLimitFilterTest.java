@@ -0,0 +1,66 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.filter.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void doFilter_should_pass_request_and_release_permit() throws Exception {
+        var filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+        var chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/restaurants"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    void doFilter_should_reject_request_when_no_permit_is_available_in_time() throws Exception {
+        var filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> slowRequest = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+                    entered.countDown();
+                    await(release);
+                });
+                return null;
+            });
+            entered.await();
+
+            var response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest(), response, new MockFilterChain());
+
+            assertEquals(503, response.getStatus());
+            assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+
+            release.countDown();
+            slowRequest.get();
+        }
+        assertEquals(1, filter.availablePermits());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
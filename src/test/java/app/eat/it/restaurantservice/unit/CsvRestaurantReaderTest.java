@@ -0,0 +1,60 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.exception.InvalidImportException;
+import app.eat.it.restaurantservice.format.CsvRestaurantReader;
+import app.eat.it.restaurantservice.format.ImportRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRestaurantReaderTest {
+
+    @Test
+    void read_should_match_columns_by_header_name() throws IOException {
+        var reader = readerOf("id,name,address,version\n1,Blue whale,Paris,0\n");
+
+        var record = reader.read();
+
+        assertTrue(record.isValid());
+        assertEquals("Blue whale", record.restaurant().name());
+        assertEquals("Paris", record.restaurant().address());
+        assertEquals(2, record.line());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void read_should_unescape_quoted_fields() throws IOException {
+        var reader = readerOf("name,address\n\"Blue \"\"whale\"\"\",\"Paris, 1st\nfloor\"\nRed whale,Nice\n");
+
+        ImportRecord first = reader.read();
+        ImportRecord second = reader.read();
+
+        assertEquals("Blue \"whale\"", first.restaurant().name());
+        assertEquals("Paris, 1st\nfloor", first.restaurant().address());
+        assertEquals(4, second.line());
+        assertEquals("Red whale", second.restaurant().name());
+    }
+
+    @Test
+    void read_should_reject_incomplete_rows() throws IOException {
+        var reader = readerOf("name,address\nBlue whale\n");
+
+        var record = reader.read();
+
+        assertFalse(record.isValid());
+        assertEquals(2, record.line());
+    }
+
+    @Test
+    void constructor_should_throw_exception_if_header_is_missing_columns() {
+        assertThrows(InvalidImportException.class, () -> readerOf("id,title\n"));
+    }
+
+    private CsvRestaurantReader readerOf(String content) throws IOException {
+        return new CsvRestaurantReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,54 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.count.ExactRestaurantCounter;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExactRestaurantCounterTest {
+
+    private final RestaurantRepository repository = Mockito.mock(RestaurantRepository.class);
+    private final ExactRestaurantCounter counter = new ExactRestaurantCounter(repository, Duration.ofMinutes(1));
+
+    @Test
+    void count_should_be_empty_until_first_refresh() {
+        assertEquals(OptionalLong.empty(), counter.count());
+
+        counter.onRestaurantChanged(RestaurantChangedEvent.created(new Restaurant(1L, "Blue whale", "Paris")));
+
+        assertEquals(OptionalLong.empty(), counter.count());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void count_should_follow_writes_between_refreshes_without_querying() {
+        when(repository.count()).thenReturn(10L);
+        counter.refresh();
+
+        counter.onRestaurantChanged(RestaurantChangedEvent.created(new Restaurant(11L, "Blue whale", "Paris")));
+        counter.onRestaurantChanged(RestaurantChangedEvent.created(new Restaurant(12L, "Red whale", "Nice")));
+        counter.onRestaurantChanged(RestaurantChangedEvent.deleted(1L));
+        counter.onRestaurantChanged(RestaurantChangedEvent.updated(new Restaurant(2L, "Green whale", "Lyon")));
+
+        assertEquals(OptionalLong.of(11), counter.count());
+        verify(repository, times(1)).count();
+    }
+
+    @Test
+    void refresh_failure_should_keep_last_count() {
+        when(repository.count()).thenReturn(10L).thenThrow(new IllegalStateException("database down"));
+
+        counter.refresh();
+        counter.refresh();
+
+        assertEquals(OptionalLong.of(10), counter.count());
+    }
+}
@@ -0,0 +1,124 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.exception.IdempotencyKeyReusedException;
+import app.eat.it.restaurantservice.exception.InvalidParameterException;
+import app.eat.it.restaurantservice.service.IdempotencyKeyStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyKeyStoreTest {
+
+    private final IdempotencyKeyStore store = new IdempotencyKeyStore(1000, Duration.ofMinutes(1));
+    private final RestaurantDto request = new RestaurantDto("Blue whale", "Paris");
+
+    @Test
+    void execute_should_replay_result_without_running_action_again() {
+        var executions = new AtomicInteger();
+
+        var first = store.execute("key", "POST", request, executions::incrementAndGet);
+        var second = store.execute("key", "POST", request, executions::incrementAndGet);
+
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_should_keep_operations_with_same_key_apart() {
+        assertEquals("created", store.execute("key", "POST", request, () -> "created"));
+        assertEquals("updated", store.execute("key", "PUT 1", request, () -> "updated"));
+    }
+
+    @Test
+    void execute_should_coalesce_concurrent_requests_with_same_key() throws Exception {
+        var executions = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = CompletableFuture.supplyAsync(() -> store.execute("key", "POST", request, () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            var second = CompletableFuture.supplyAsync(() -> store.execute("key", "POST", request, executions::incrementAndGet), executor);
+
+            Thread.sleep(100);
+            assertFalse(second.isDone());
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_should_reject_key_reused_for_other_request() {
+        store.execute("key", "POST", request, () -> 1);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key", "POST", new RestaurantDto("Red whale", "Nice"), () -> 2));
+    }
+
+    @Test
+    void execute_should_run_action_again_after_failure() {
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "POST", request, () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertEquals(2, store.execute("key", "POST", request, () -> 2));
+    }
+
+    @Test
+    void execute_should_rethrow_error_of_first_request_to_waiting_one() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var first = CompletableFuture.supplyAsync(() -> store.execute("key", "POST", request, () -> {
+                started.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }), executor);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            var second = CompletableFuture.supplyAsync(() -> assertThrows(StackOverflowError.class,
+                    () -> store.execute("key", "POST", request, () -> 2)), executor);
+
+            Thread.sleep(100);
+            release.countDown();
+
+            assertNotNull(second.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_should_reject_overlong_key() {
+        assertThrows(InvalidParameterException.class, () -> store.execute("k".repeat(256), "POST", request, () -> 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
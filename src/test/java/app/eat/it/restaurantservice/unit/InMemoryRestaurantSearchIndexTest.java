@@ -0,0 +1,96 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.search.InMemoryRestaurantSearchIndex;
+import app.eat.it.restaurantservice.search.SearchMode;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class InMemoryRestaurantSearchIndexTest {
+
+    private final RestaurantService restaurantService = Mockito.mock(RestaurantService.class);
+
+    private final RestaurantChangeFeed changeFeed = Mockito.mock(RestaurantChangeFeed.class);
+
+    private final InMemoryRestaurantSearchIndex searchIndex =
+            new InMemoryRestaurantSearchIndex(restaurantService, changeFeed);
+
+    @BeforeEach
+    void setUp() {
+        searchIndex.put(1L, "Blue whale", "Paris");
+        searchIndex.put(2L, "Blue lagoon", "Nice");
+        searchIndex.put(3L, "Red whale", "Blueberry street");
+        searchIndex.put(4L, "Pizza Napoli", "Roma");
+    }
+
+    @Test
+    void search_prefix_should_match_beginning_of_any_word() {
+        assertEquals(List.of(1L, 2L, 3L), searchIndex.search("Blu", SearchMode.PREFIX, 0, 10));
+    }
+
+    @Test
+    void search_substring_should_rank_earlier_matches_first() {
+        assertEquals(List.of(3L, 1L), searchIndex.search("hale", SearchMode.SUBSTRING, 0, 10));
+    }
+
+    @Test
+    void search_fuzzy_should_tolerate_typos() {
+        assertEquals(List.of(4L), searchIndex.search("pizza napli", SearchMode.FUZZY, 0, 10));
+    }
+
+    @Test
+    void search_should_apply_offset_and_limit() {
+        assertEquals(List.of(2L), searchIndex.search("blu", SearchMode.PREFIX, 1, 1));
+    }
+
+    @Test
+    void search_should_handle_pages_beyond_the_matches() {
+        assertEquals(List.of(), searchIndex.search("blu", SearchMode.PREFIX, 10, 10));
+        assertEquals(searchIndex.search("blu", SearchMode.PREFIX, 0, 10),
+                searchIndex.search("blu", SearchMode.PREFIX, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void onChanges_should_follow_updates_and_deletes() {
+        searchIndex.onChanges(List.of(
+                new RestaurantChangeDto(1, RestaurantChangedEvent.ChangeType.UPDATED, 1L, "Green turtle", "Paris", null, null, Instant.now()),
+                new RestaurantChangeDto(2, RestaurantChangedEvent.ChangeType.DELETED, 3L, null, null, null, null, Instant.now())));
+
+        assertTrue(searchIndex.search("whale", SearchMode.SUBSTRING, 0, 10).isEmpty());
+        assertEquals(List.of(1L), searchIndex.search("turtle", SearchMode.SUBSTRING, 0, 10));
+        assertEquals(3, searchIndex.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_should_follow_the_feed_from_before_the_export() {
+        when(changeFeed.head()).thenReturn(42L);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(new RestaurantResponseDto(5L, "Green turtle", "Lyon"));
+            return null;
+        }).when(restaurantService).exportRestaurants(any());
+
+        searchIndex.rebuild();
+
+        InOrder inOrder = inOrder(changeFeed, restaurantService);
+        inOrder.verify(changeFeed).head();
+        inOrder.verify(restaurantService).exportRestaurants(any());
+        inOrder.verify(changeFeed).subscribe(eq(42L), any());
+        assertEquals(List.of(5L), searchIndex.search("turtle", SearchMode.SUBSTRING, 0, 10));
+    }
+}
@@ -0,0 +1,55 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.format.ImportRecord;
+import app.eat.it.restaurantservice.format.NdjsonRestaurantReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonRestaurantReaderTest {
+
+    @Test
+    void read_should_skip_blank_lines_and_keep_line_numbers() throws IOException {
+        var reader = readerOf("{\"name\":\"Blue whale\",\"address\":\"Paris\"}\n\n{\"name\":\"Red whale\",\"address\":\"Nice\"}\n");
+
+        ImportRecord first = reader.read();
+        ImportRecord second = reader.read();
+
+        assertTrue(first.isValid());
+        assertEquals("Blue whale", first.restaurant().name());
+        assertEquals(3, second.line());
+        assertEquals("Red whale", second.restaurant().name());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void read_should_reject_null_records() throws IOException {
+        var reader = readerOf("null\n{\"name\":\"Blue whale\",\"address\":\"Paris\"}\n");
+
+        var record = reader.read();
+
+        assertFalse(record.isValid());
+        assertEquals(1, record.line());
+        assertEquals("empty record", record.error());
+        assertTrue(reader.read().isValid());
+    }
+
+    @Test
+    void read_should_reject_malformed_json() throws IOException {
+        var reader = readerOf("{\"name\":\n");
+
+        var record = reader.read();
+
+        assertFalse(record.isValid());
+        assertTrue(record.error().startsWith("malformed JSON"));
+    }
+
+    private NdjsonRestaurantReader readerOf(String content) {
+        return new NdjsonRestaurantReader(new ObjectMapper(), new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,136 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.exception.VersionConflictException;
+import app.eat.it.restaurantservice.model.RestaurantRow;
+import app.eat.it.restaurantservice.repository.ReactiveRestaurantRepository;
+import app.eat.it.restaurantservice.service.ReactiveRestaurantService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ReactiveRestaurantServiceTest {
+
+    private final ReactiveRestaurantRepository repository = Mockito.mock(ReactiveRestaurantRepository.class);
+    private final ReactiveRestaurantService restaurantService = new ReactiveRestaurantService(repository);
+
+    @Test
+    void getRestaurants_should_sort_like_servlet_mode() {
+        var row = new RestaurantRow(1L, "Blue whale", "Paris", 48.85, 2.35, 0L, null);
+
+        when(repository.findAllBy(any(Pageable.class))).thenReturn(Flux.just(row));
+
+        StepVerifier.create(restaurantService.getRestaurants(2, 10, "name", "asc"))
+                .expectNext(new RestaurantResponseDto(1L, "Blue whale", "Paris", 48.85, 2.35, 0L))
+                .verifyComplete();
+
+        verify(repository).findAllBy(argThat(pageable -> pageable.getPageNumber() == 1
+                && pageable.getPageSize() == 10
+                && pageable.getSort().equals(Sort.by("name", "id").ascending())));
+    }
+
+    @Test
+    void getRestaurant_should_throw_exception_if_id_not_exists() {
+        when(repository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(restaurantService.getRestaurant(1L))
+                .verifyError(EntityNotFoundException.class);
+    }
+
+    @Test
+    void getRestaurantsByIds_should_keep_order_of_ids_and_skip_unknown_and_repeated_ids() {
+        var first = new RestaurantRow(1L, "Blue whale", "Paris", null, null, 0L, null);
+        var second = new RestaurantRow(2L, "Red whale", "Nice", null, null, 0L, null);
+
+        when(repository.findAllById(List.of(2L, 3L, 1L))).thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(restaurantService.getRestaurantsByIds(List.of(2L, 3L, 1L, 2L)).map(RestaurantResponseDto::id))
+                .expectNext(2L, 1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void createRestaurant_should_hand_out_ids_from_one_reserved_block() {
+        when(repository.nextIdBlock()).thenReturn(Mono.just(100L));
+        when(repository.save(any(RestaurantRow.class))).thenAnswer(invocation -> {
+            RestaurantRow row = invocation.getArgument(0);
+            assertNull(row.getVersion());
+            row.setVersion(0L);
+            return Mono.just(row);
+        });
+
+        when(repository.insertChange(any(), any(), any(), any(), any(), any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(restaurantService.createRestaurants(List.of(
+                        new RestaurantDto("Blue whale", "Paris"),
+                        new RestaurantDto("Red whale", "Nice"))).map(RestaurantResponseDto::id))
+                .expectNext(100L, 101L)
+                .verifyComplete();
+
+        verify(repository, times(1)).nextIdBlock();
+        verify(repository).insertChange(eq("CREATED"), eq(100L), eq("Blue whale"), eq("Paris"), isNull(), isNull(), any(Instant.class));
+        verify(repository).insertChange(eq("CREATED"), eq(101L), eq("Red whale"), eq("Nice"), isNull(), isNull(), any(Instant.class));
+    }
+
+    @Test
+    void updateRestaurant_should_append_change_to_outbox() {
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris", 48.85, 2.35);
+
+        when(repository.updateByIdAndVersion(eq(1L), eq(3L), eq("Blue whale"), eq("Paris"),
+                eq(48.85), eq(2.35), any(Instant.class))).thenReturn(Mono.just(1));
+        when(repository.insertChange(any(), any(), any(), any(), any(), any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(restaurantService.updateRestaurant(1L, restaurantDto, 3L))
+                .verifyComplete();
+
+        verify(repository).insertChange(eq("UPDATED"), eq(1L), eq("Blue whale"), eq("Paris"), eq(48.85), eq(2.35), any(Instant.class));
+    }
+
+    @Test
+    void deleteRestaurant_should_append_change_to_outbox() {
+        when(repository.deleteRestaurantById(1L)).thenReturn(Mono.just(1));
+        when(repository.insertChange(any(), any(), any(), any(), any(), any(), any())).thenReturn(Mono.just(1));
+
+        StepVerifier.create(restaurantService.deleteRestaurant(1L))
+                .verifyComplete();
+
+        verify(repository).insertChange(eq("DELETED"), eq(1L), isNull(), isNull(), isNull(), isNull(), any(Instant.class));
+    }
+
+    @Test
+    void updateRestaurant_should_throw_exception_if_version_is_stale() {
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris");
+
+        when(repository.updateByIdAndVersion(eq(1L), eq(3L), eq("Blue whale"), eq("Paris"),
+                isNull(), isNull(), any(Instant.class))).thenReturn(Mono.just(0));
+        when(repository.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(restaurantService.updateRestaurant(1L, restaurantDto, 3L))
+                .verifyError(VersionConflictException.class);
+    }
+
+    @Test
+    void deleteRestaurant_should_throw_exception_if_id_not_exists() {
+        when(repository.deleteRestaurantById(1L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(restaurantService.deleteRestaurant(1L))
+                .verifyError(EntityNotFoundException.class);
+
+        verify(repository, never()).insertChange(any(), any(), any(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,142 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import app.eat.it.restaurantservice.model.Restaurant;
+import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import app.eat.it.restaurantservice.service.RestaurantBatchLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class RestaurantBatchLoaderTest {
+
+    private final RestaurantRepository repository = Mockito.mock(RestaurantRepository.class);
+    private final SqlStatementCounter statementCounter = new SqlStatementCounter();
+    private RestaurantBatchLoader batchLoader;
+
+    @AfterEach
+    void tearDown() {
+        batchLoader.shutdown();
+    }
+
+    @Test
+    void load_should_coalesce_concurrent_lookups_into_one_query() {
+        batchLoader = new RestaurantBatchLoader(repository, statementCounter, Duration.ofMillis(200), 100);
+        var first = new Restaurant(1L, "Blue whale", "Paris");
+        var second = new Restaurant(2L, "Red whale", "Nice");
+
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(first, second));
+
+        List<Optional<RestaurantDetailsDto>> results;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var lookups = List.of(
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(1L), callers),
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(1L), callers),
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(2L), callers),
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(3L), callers));
+            results = lookups.stream().map(CompletableFuture::join).toList();
+        }
+
+        assertEquals(List.of(Optional.of(RestaurantDetailsDto.of(first)), Optional.of(RestaurantDetailsDto.of(first)),
+                Optional.of(RestaurantDetailsDto.of(second)), Optional.empty()), results);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, times(1)).findAllById(captor.capture());
+        Set<Long> requestedIds = new HashSet<>();
+        captor.getValue().forEach(requestedIds::add);
+        assertEquals(Set.of(1L, 2L, 3L), requestedIds);
+    }
+
+    @Test
+    void loadAll_should_not_wait_for_window_once_batch_is_full() {
+        batchLoader = new RestaurantBatchLoader(repository, statementCounter, Duration.ofHours(1), 2);
+        var first = new Restaurant(1L, "Blue whale", "Paris");
+
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(first));
+
+        var restaurants = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> batchLoader.loadAll(List.of(1L, 2L)));
+
+        assertEquals(Map.of(1L, RestaurantDetailsDto.of(first)), restaurants);
+    }
+
+    @Test
+    void load_should_propagate_query_failure_and_allow_retry() {
+        batchLoader = new RestaurantBatchLoader(repository, statementCounter, Duration.ZERO, 100);
+        var restaurant = new Restaurant(1L, "Blue whale", "Paris");
+
+        when(repository.findAllById(anyIterable()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(List.of(restaurant));
+
+        assertThrows(IllegalStateException.class, () -> batchLoader.load(1L));
+        assertEquals(Optional.of(RestaurantDetailsDto.of(restaurant)), batchLoader.load(1L));
+    }
+
+    @Test
+    void load_should_propagate_error_to_every_waiting_caller_and_allow_retry() {
+        batchLoader = new RestaurantBatchLoader(repository, statementCounter, Duration.ofMillis(200), 100);
+        var restaurant = new Restaurant(1L, "Blue whale", "Paris");
+
+        when(repository.findAllById(anyIterable()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(List.of(restaurant));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var requests = List.of(
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(1L), callers),
+                    CompletableFuture.supplyAsync(() -> batchLoader.load(2L), callers));
+            for (var request : requests) {
+                CompletionException exception = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                        () -> assertThrows(CompletionException.class, request::join));
+                assertInstanceOf(StackOverflowError.class, exception.getCause());
+            }
+        }
+
+        assertEquals(Optional.of(RestaurantDetailsDto.of(restaurant)), batchLoader.load(1L));
+    }
+
+    @Test
+    void load_should_count_the_batch_statement_for_every_request_that_joined_it() {
+        batchLoader = new RestaurantBatchLoader(repository, statementCounter, Duration.ofMillis(200), 100);
+
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            statementCounter.increment();
+            return List.of(new Restaurant(1L, "Blue whale", "Paris"));
+        });
+
+        List<Integer> counts;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            var requests = List.of(
+                    CompletableFuture.supplyAsync(() -> countedLoad(1L), callers),
+                    CompletableFuture.supplyAsync(() -> countedLoad(2L), callers));
+            counts = requests.stream().map(CompletableFuture::join).toList();
+        }
+
+        verify(repository, times(1)).findAllById(anyIterable());
+        assertEquals(List.of(1, 1), counts);
+    }
+
+    private int countedLoad(Long id) {
+        statementCounter.start();
+        batchLoader.load(id);
+        return statementCounter.stop();
+    }
+}
@@ -0,0 +1,96 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import app.eat.it.restaurantservice.repository.RestaurantOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RestaurantChangeFeedTest {
+
+    private final RestaurantOutboxRepository repository = Mockito.mock(RestaurantOutboxRepository.class);
+    private final List<RestaurantChangeDto> outbox = new CopyOnWriteArrayList<>();
+    private RestaurantChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    void poll_should_hold_back_changes_behind_uncommitted_sequence() {
+        startFeed(Duration.ofHours(1));
+        outbox.addAll(List.of(change(1), change(3)));
+
+        changeFeed.poll();
+        changeFeed.poll();
+
+        assertEquals(1, changeFeed.head());
+    }
+
+    @Test
+    void poll_should_skip_sequence_not_committed_within_gap_timeout() {
+        startFeed(Duration.ZERO);
+        outbox.addAll(List.of(change(1), change(3)));
+
+        changeFeed.poll();
+        assertEquals(1, changeFeed.head());
+
+        changeFeed.poll();
+        assertEquals(3, changeFeed.head());
+    }
+
+    @Test
+    void subscribe_should_deliver_changes_after_since_in_order() throws InterruptedException {
+        startFeed(Duration.ofHours(1));
+        outbox.addAll(List.of(change(1), change(2), change(3)));
+        changeFeed.poll();
+
+        List<Long> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        changeFeed.subscribe(1, changes -> {
+            changes.forEach(change -> received.add(change.sequence()));
+            if (received.size() == 3) {
+                delivered.countDown();
+            }
+        });
+        outbox.add(change(4));
+        changeFeed.poll();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L, 4L), received);
+        // served from memory, the poller is the only one reading the outbox
+        verify(repository, never()).findChangesAfter(eq(1L), any(Limit.class));
+    }
+
+    private void startFeed(Duration gapTimeout) {
+        when(repository.findLatestSequence()).thenReturn(0L);
+        when(repository.findChangesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            return outbox.stream().filter(change -> change.sequence() > since).toList();
+        });
+        changeFeed = new RestaurantChangeFeed(repository, new SqlStatementCounter(), Duration.ofHours(1), gapTimeout, Duration.ofDays(7), 100, 1000);
+        changeFeed.start();
+    }
+
+    private static RestaurantChangeDto change(long sequence) {
+        return new RestaurantChangeDto(sequence, RestaurantChangedEvent.ChangeType.UPDATED, sequence,
+                "Blue whale", "Paris", 48.85, 2.35, Instant.parse("2024-03-01T10:15:30Z"));
+    }
+}
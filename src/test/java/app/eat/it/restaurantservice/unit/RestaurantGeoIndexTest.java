@@ -0,0 +1,63 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.dto.RestaurantChangeDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
+import app.eat.it.restaurantservice.feed.RestaurantChangeFeed;
+import app.eat.it.restaurantservice.search.NearbyHit;
+import app.eat.it.restaurantservice.search.RestaurantGeoIndex;
+import app.eat.it.restaurantservice.service.RestaurantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantGeoIndexTest {
+
+    private final RestaurantGeoIndex geoIndex =
+            new RestaurantGeoIndex(Mockito.mock(RestaurantService.class), Mockito.mock(RestaurantChangeFeed.class), 0.05);
+
+    @BeforeEach
+    void setUp() {
+        geoIndex.put(1L, 48.8566, 2.3522);
+        geoIndex.put(2L, 48.8049, 2.1204);
+        geoIndex.put(3L, 45.7640, 4.8357);
+        geoIndex.put(4L, 43.7102, 7.2620);
+        geoIndex.put(5L, null, null);
+    }
+
+    @Test
+    void nearest_should_return_restaurants_within_radius_nearest_first() {
+        List<NearbyHit> hits = geoIndex.nearest(48.86, 2.34, 50, 10);
+
+        assertEquals(List.of(1L, 2L), hits.stream().map(NearbyHit::id).toList());
+        assertTrue(hits.get(0).distanceKm() < hits.get(1).distanceKm());
+    }
+
+    @Test
+    void nearest_should_return_at_most_limit_restaurants() {
+        List<NearbyHit> hits = geoIndex.nearest(46.0, 4.5, 1000, 2);
+
+        assertEquals(List.of(3L, 4L), hits.stream().map(NearbyHit::id).toList());
+    }
+
+    @Test
+    void nearest_should_find_restaurants_across_the_antimeridian() {
+        geoIndex.put(6L, 0.0, 179.99);
+
+        assertEquals(List.of(6L), geoIndex.nearest(0.0, -179.99, 10, 10).stream().map(NearbyHit::id).toList());
+    }
+
+    @Test
+    void onChanges_should_move_and_remove_restaurants() {
+        geoIndex.onChanges(List.of(
+                new RestaurantChangeDto(1, RestaurantChangedEvent.ChangeType.UPDATED, 4L, "Blue lagoon", "Paris", 48.85, 2.35, Instant.now()),
+                new RestaurantChangeDto(2, RestaurantChangedEvent.ChangeType.DELETED, 2L, null, null, null, null, Instant.now())));
+
+        assertEquals(List.of(4L, 1L), geoIndex.nearest(48.85, 2.35, 50, 10).stream().map(NearbyHit::id).toList());
+        assertEquals(3, geoIndex.size());
+    }
+}
@@ -1,51 +1,108 @@
 package app.eat.it.restaurantservice.unit;
 
+import app.eat.it.restaurantservice.dto.RestaurantDetailsDto;
 import app.eat.it.restaurantservice.dto.RestaurantDto;
+import app.eat.it.restaurantservice.dto.RestaurantResponseDto;
+import app.eat.it.restaurantservice.event.RestaurantChangedEvent;
 import app.eat.it.restaurantservice.exception.EntityNotFoundException;
+import app.eat.it.restaurantservice.exception.InvalidCursorException;
+import app.eat.it.restaurantservice.exception.VersionConflictException;
 import app.eat.it.restaurantservice.model.Restaurant;
 import app.eat.it.restaurantservice.repository.RestaurantRepository;
+import app.eat.it.restaurantservice.service.RestaurantBatchLoader;
+import app.eat.it.restaurantservice.service.RestaurantCursor;
 import app.eat.it.restaurantservice.service.RestaurantService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class RestaurantServiceTest {
 
     private final RestaurantRepository repository = Mockito.mock(RestaurantRepository.class);
-    private final RestaurantService restaurantService = new RestaurantService(repository);
+    private final RestaurantBatchLoader batchLoader = Mockito.mock(RestaurantBatchLoader.class);
+    private final ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+    private final RestaurantService restaurantService = new RestaurantService(repository, batchLoader, eventPublisher);
 
     @Test
     void getRestaurants_should_return_restaurantList() {
-        var restaurantList = List.of(prepareSampleRestaurant(randomId()));
-        var restaurantPage = new PageImpl<>(restaurantList);
+        var restaurantList = List.of(new RestaurantResponseDto(randomId(), "Blue whale", "Paris", 48.85, 2.35, 0L));
 
-        when(repository.findAll(any(Pageable.class))).thenReturn(restaurantPage);
+        when(repository.findAllProjectedBy(any(Pageable.class))).thenReturn(restaurantList);
 
         var retrievedRestaurantList = restaurantService.getRestaurants(1, 10, "name", "asc");
 
-        verify(repository, times(1)).findAll(any(Pageable.class));
+        verify(repository, times(1)).findAllProjectedBy(any(Pageable.class));
+        verify(repository, never()).findAll(any(Pageable.class));
         assertThat(retrievedRestaurantList).usingRecursiveAssertion().isEqualTo(restaurantList);
     }
 
+    @Test
+    void getRestaurantSlice_should_return_next_cursor_after_last_restaurant() {
+        var restaurant = prepareSampleRestaurant(randomId());
+        Window<Restaurant> window = Window.from(List.of(restaurant), index -> ScrollPosition.offset(index), true);
+
+        when(repository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+
+        var slice = restaurantService.getRestaurantSlice(null, 1, "name", "asc");
+        var cursor = RestaurantCursor.decode(slice.nextCursor());
+
+        verify(repository, never()).findAll(any(Pageable.class));
+        assertEquals(List.of(restaurant), slice.content());
+        assertEquals(restaurant.getId(), cursor.id());
+        assertEquals(restaurant.getName(), cursor.key());
+        assertTrue(cursor.matches("name", Sort.Direction.ASC));
+    }
+
+    @Test
+    void getRestaurantSlice_should_throw_exception_if_cursor_does_not_match_sort() {
+        var cursor = new RestaurantCursor("name", Sort.Direction.ASC, randomId(), "Blue whale").encode();
+
+        assertThrows(InvalidCursorException.class,
+                () -> restaurantService.getRestaurantSlice(cursor, 10, "address", "asc"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getRestaurantResponses_should_keep_order_of_ids_and_skip_unknown_ids() {
+        var first = new RestaurantResponseDto(1L, "Blue whale", "Paris", 48.85, 2.35, 0L);
+        var second = new RestaurantResponseDto(2L, "Red whale", "Nice", 43.70, 7.27, 0L);
+        var ids = List.of(2L, 3L, 1L);
+
+        when(repository.findAllProjectedByIdIn(ids)).thenReturn(List.of(first, second));
+
+        var restaurants = restaurantService.getRestaurantResponses(ids);
+
+        assertEquals(List.of(second, first), restaurants);
+    }
+
     @Test
     void getRestaurant_should_return_restaurant_if_id_exists() {
         var id = randomId();
-        var restaurant = prepareSampleRestaurant(id);
+        var restaurant = RestaurantDetailsDto.of(prepareSampleRestaurant(id));
 
-        when(repository.findById(id)).thenReturn(Optional.of(restaurant));
+        when(batchLoader.load(id)).thenReturn(Optional.of(restaurant));
 
         var retrievedRestaurant = restaurantService.getRestaurant(id);
 
-        verify(repository, times(1)).findById(id);
+        verify(batchLoader, times(1)).load(id);
+        verifyNoInteractions(repository);
         assertEquals(retrievedRestaurant, restaurant);
     }
 
@@ -53,10 +110,22 @@ class RestaurantServiceTest {
     void getRestaurant_should_throw_exception_if_id_not_exists() {
         var id = randomId();
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(batchLoader.load(id)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> restaurantService.getRestaurant(id));
-        verify(repository, times(1)).findById(id);
+        verify(batchLoader, times(1)).load(id);
+    }
+
+    @Test
+    void getRestaurantsByIds_should_keep_order_of_ids_and_skip_unknown_and_repeated_ids() {
+        var first = RestaurantDetailsDto.of(prepareSampleRestaurant(1L));
+        var second = RestaurantDetailsDto.of(prepareSampleRestaurant(2L));
+        var ids = List.of(2L, 3L, 1L, 2L);
+
+        when(batchLoader.loadAll(ids)).thenReturn(Map.of(1L, first, 2L, second));
+
+        assertEquals(List.of(second, first), restaurantService.getRestaurantsByIds(ids));
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -77,27 +146,93 @@ class RestaurantServiceTest {
     void updateRestaurant() {
         var id = randomId();
         var restaurantDto = new RestaurantDto("Blue whale", "Paris");
-        var restaurant = prepareSampleRestaurant(id);
 
-        when(repository.findById(id)).thenReturn(Optional.of(restaurant));
-        when(repository.save(any(Restaurant.class))).thenReturn(restaurant);
+        when(repository.updateById(eq(id), eq(restaurantDto.name()), eq(restaurantDto.address()),
+                isNull(), isNull(), any(Instant.class))).thenReturn(1);
 
         restaurantService.updateRestaurant(id, restaurantDto);
 
-        verify(repository, times(1)).save(any(Restaurant.class));
+        verify(repository, times(1)).updateById(eq(id), eq(restaurantDto.name()), eq(restaurantDto.address()),
+                isNull(), isNull(), any(Instant.class));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void updateRestaurant_should_throw_exception_if_id_not_exists() {
+        var id = randomId();
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris");
+
+        when(repository.updateById(eq(id), eq(restaurantDto.name()), eq(restaurantDto.address()),
+                isNull(), isNull(), any(Instant.class))).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> restaurantService.updateRestaurant(id, restaurantDto));
+    }
+
+    @Test
+    void updateRestaurant_should_throw_exception_if_version_is_stale() {
+        var id = randomId();
+        var restaurantDto = new RestaurantDto("Blue whale", "Paris");
+
+        when(repository.updateByIdAndVersion(eq(id), eq(1L), eq(restaurantDto.name()), eq(restaurantDto.address()),
+                isNull(), isNull(), any(Instant.class))).thenReturn(0);
+        when(repository.existsById(id)).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> restaurantService.updateRestaurant(id, restaurantDto, 1L));
     }
 
     @Test
     void deleteRestaurant() {
         var id = randomId();
-        var restaurant = prepareSampleRestaurant(id);
 
-        when(repository.findById(id)).thenReturn(Optional.of(restaurant));
+        when(repository.deleteRestaurantById(id)).thenReturn(1);
 
         restaurantService.deleteRestaurant(id);
 
-        verify(repository, times(1)).findById(id);
-        verify(repository, times(1)).delete(restaurant);
+        verify(repository, times(1)).deleteRestaurantById(id);
+        verify(repository, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(RestaurantChangedEvent.deleted(id));
+    }
+
+    @Test
+    void deleteRestaurant_should_throw_exception_if_id_not_exists() {
+        var id = randomId();
+
+        when(repository.deleteRestaurantById(id)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class, () -> restaurantService.deleteRestaurant(id));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateRestaurants_should_update_only_existing_restaurants() {
+        var existingId = randomId();
+        var missingId = randomId();
+        var restaurant = prepareSampleRestaurant(existingId);
+        var restaurantDtos = Map.of(
+                existingId, new RestaurantDto("Green whale", "Lyon"),
+                missingId, new RestaurantDto("Red whale", "Nice"));
+
+        when(repository.findAllById(restaurantDtos.keySet())).thenReturn(List.of(restaurant));
+
+        var updated = restaurantService.updateRestaurants(restaurantDtos);
+
+        assertEquals(List.of(restaurant), updated);
+        assertEquals("Green whale", restaurant.getName());
+        assertEquals("Lyon", restaurant.getAddress());
+    }
+
+    @Test
+    void deleteRestaurants_should_return_deleted_ids() {
+        var existingId = randomId();
+        var missingId = randomId();
+        var ids = List.of(existingId, missingId);
+
+        when(repository.findAllById(ids)).thenReturn(List.of(prepareSampleRestaurant(existingId)));
+
+        var deleted = restaurantService.deleteRestaurants(ids);
+
+        verify(repository, times(1)).deleteAllByIdInBatch(List.of(existingId));
+        assertEquals(List.of(existingId), deleted);
     }
 
     private Restaurant prepareSampleRestaurant(Long id) {
@@ -0,0 +1,113 @@
+package app.eat.it.restaurantservice.unit;
+
+import app.eat.it.restaurantservice.filter.StatementCountFilter;
+import app.eat.it.restaurantservice.metrics.CountingDataSource;
+import app.eat.it.restaurantservice.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class StatementCountFilterTest {
+
+    private final SqlStatementCounter statementCounter = new SqlStatementCounter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementCountFilter filter = new StatementCountFilter(statementCounter, meterRegistry, 10);
+
+    @Test
+    void doFilter_should_record_statements_issued_by_request_per_endpoint() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/v1/restaurants/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/restaurants/{id}");
+            statementCounter.increment();
+            statementCounter.increment();
+        });
+
+        var summary = meterRegistry.get(StatementCountFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/restaurants/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void doFilter_should_record_async_requests_once_completed() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/v1/restaurants/changes");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/restaurants/changes");
+            statementCounter.increment();
+            servletRequest.startAsync();
+        });
+
+        assertNull(meterRegistry.find(StatementCountFilter.METRIC_NAME).summary());
+
+        // the async dispatch resumes the count of the request
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> statementCounter.increment());
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        var summary = meterRegistry.get(StatementCountFilter.METRIC_NAME)
+                .tag("uri", "/api/v1/restaurants/changes")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void increment_should_not_count_statements_outside_of_request() {
+        statementCounter.increment();
+
+        statementCounter.start();
+        statementCounter.increment();
+
+        assertEquals(1, statementCounter.stop());
+        assertEquals(0, statementCounter.stop());
+    }
+
+    @Test
+    void countFor_should_count_statements_for_every_given_request() {
+        SqlStatementCounter.Count first = statementCounter.start();
+        statementCounter.stop();
+        SqlStatementCounter.Count second = statementCounter.start();
+        statementCounter.stop();
+
+        statementCounter.countFor(List.of(first, second), () -> {
+            statementCounter.increment();
+            return null;
+        });
+
+        assertEquals(1, first.get());
+        assertEquals(1, second.get());
+    }
+
+    @Test
+    void countingDataSource_should_count_jdbc_statements() throws Exception {
+        DataSource target = Mockito.mock(DataSource.class);
+        when(target.getConnection()).thenReturn(Mockito.mock(Connection.class));
+        DataSource dataSource = new CountingDataSource(target, statementCounter);
+
+        statementCounter.start();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("insert into restaurant_outbox (type) values (?)");
+            connection.prepareStatement("select 1");
+            connection.getAutoCommit();
+        }
+
+        assertEquals(2, statementCounter.stop());
+    }
+}